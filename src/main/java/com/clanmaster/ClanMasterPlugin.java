@@ -4,13 +4,20 @@ import com.clanmaster.api.ClanAPI;
 import com.clanmaster.command.ClanCommand;
 import com.clanmaster.data.ClanStorage;
 import com.clanmaster.data.StorageType;
+import com.clanmaster.data.journal.JournalClanStorage;
 import com.clanmaster.data.json.JsonClanStorage;
 import com.clanmaster.data.sql.SqlClanStorage;
 import com.clanmaster.gui.ClanMenu;
+import com.clanmaster.listener.ClanChatListener;
+import com.clanmaster.listener.ClanPlayerListener;
+import com.clanmaster.listener.CombatListener;
+import com.clanmaster.listener.DamageListener;
 import com.clanmaster.util.integration.IntegrationManager;
 import com.clanmaster.placeholder.ClanPlaceholderExpansion;
 import com.clanmaster.service.BonusService;
+import com.clanmaster.service.ClanChatService;
 import com.clanmaster.service.ClanService;
+import com.clanmaster.service.CombatService;
 import com.clanmaster.util.MessageResolver;
 import com.clanmaster.util.Text;
 import com.clanmaster.command.ClanChatCommand;
@@ -32,12 +39,16 @@ import java.util.logging.Logger;
 public final class ClanMasterPlugin extends JavaPlugin {
 
     private ClanService clanService;
+    private ClanChatService clanChat;
+    private CombatService combat;
     private BonusService bonusService;
     private MessageResolver messages;
     private FeatureManager featureManager;
     private Economy economy;
     private ClanMenu clanMenu;
     private IntegrationManager integrationManager;
+    private ClanPlaceholderExpansion placeholderExpansion;
+    private volatile ClanMasterSettings settings;
 
     @Override
     public void onEnable() {
@@ -46,15 +57,21 @@ public final class ClanMasterPlugin extends JavaPlugin {
         saveResource("lang/uk.yml", false);
         saveResource("lang/de.yml", false);
         saveResource("lang/fr.yml", false);
+        reloadSettings();
 
         this.messages = new MessageResolver(this);
-        this.featureManager = new FeatureManager(this);
+        this.featureManager = new FeatureManager(this, messages);
         this.economy = setupEconomy();
 
         ClanStorage storage = createStorage();
         this.clanService = new ClanService(this, storage, messages, economy);
+        this.clanChat = new ClanChatService(this, clanService, messages);
+        clanChat.start();
+        this.combat = new CombatService(this, clanService);
+        combat.start();
         this.bonusService = new BonusService(getConfig());
         this.clanMenu = new ClanMenu(this, clanService, bonusService, messages, featureManager);
+        clanMenu.start();
         this.integrationManager = new IntegrationManager(this, clanService, messages);
 
         ClanAPI.initialize(this, clanService, bonusService);
@@ -68,6 +85,9 @@ public final class ClanMasterPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (combat != null) {
+            combat.flush();
+        }
         if (clanService != null) {
             clanService.shutdown();
         }
@@ -81,7 +101,9 @@ public final class ClanMasterPlugin extends JavaPlugin {
         ClanCommand cmd = new ClanCommand(this, clanService, bonusService, messages, economy, clanMenu, featureManager);
         getCommand("clan").setExecutor(cmd);
         getCommand("clan").setTabCompleter(cmd);
-        getCommand("clanchat").setExecutor(new ClanChatCommand(clanService));
+        ClanChatCommand chatCmd = new ClanChatCommand(clanService, clanChat, messages, featureManager);
+        getCommand("clanchat").setExecutor(chatCmd);
+        getCommand("clanchat").setTabCompleter(chatCmd);
         getCommand("clanchatspy").setExecutor(new ClanChatSpyCommand(clanService));
         getCommand("clanchest").setExecutor(new ClanChestCommand(clanService));
         var adminCmd = new com.clanmaster.command.ClanAdminCommand(this, clanService, messages);
@@ -90,10 +112,15 @@ public final class ClanMasterPlugin extends JavaPlugin {
     }
 
     /**
-     * Registers Bukkit listeners for GUI handling.
+     * Registers Bukkit listeners for GUI handling, chat, combat and online tracking.
      */
     private void registerListeners() {
         getServer().getPluginManager().registerEvents(clanMenu, this);
+        getServer().getPluginManager().registerEvents(new ClanPlayerListener(clanService), this);
+        getServer().getPluginManager().registerEvents(
+                new ClanChatListener(clanService, clanChat, messages, featureManager), this);
+        getServer().getPluginManager().registerEvents(new CombatListener(combat), this);
+        getServer().getPluginManager().registerEvents(new DamageListener(clanService, featureManager), this);
         getServer().getPluginManager().registerEvents(integrationManager, this);
     }
 
@@ -111,9 +138,15 @@ public final class ClanMasterPlugin extends JavaPlugin {
                 return new SqlClanStorage(config, getLogger());
             case SQLITE:
                 return new SqlClanStorage(config, getLogger());
+            case JOURNAL:
+                return new JournalClanStorage(new File(dataFolder, "journal").toPath(),
+                        config.getLong("storage.journal.compact-mb", 8) * 1024 * 1024,
+                        config.getBoolean("storage.journal.fsync", true), getLogger());
             case JSON:
             default:
-                return new JsonClanStorage(new File(dataFolder, "clans.json"), getLogger());
+                return new JsonClanStorage(new File(dataFolder, "clans"), new File(dataFolder, "clans.json"),
+                        config.getInt("storage.json.load-threads", 4),
+                        config.getBoolean("storage.json.pretty", false), getLogger());
         }
     }
 
@@ -145,7 +178,9 @@ public final class ClanMasterPlugin extends JavaPlugin {
      */
     private void registerPlaceholder() {
         if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            new ClanPlaceholderExpansion(clanService, this).register();
+            placeholderExpansion = new ClanPlaceholderExpansion(clanService, this);
+            placeholderExpansion.register();
+            getServer().getPluginManager().registerEvents(placeholderExpansion, this);
             getLogger().info("PlaceholderAPI hook registered.");
         }
     }
@@ -154,6 +189,10 @@ public final class ClanMasterPlugin extends JavaPlugin {
         return clanService;
     }
 
+    public ClanChatService getClanChat() {
+        return clanChat;
+    }
+
     public BonusService getBonusService() {
         return bonusService;
     }
@@ -162,6 +201,10 @@ public final class ClanMasterPlugin extends JavaPlugin {
         return messages;
     }
 
+    public ClanMenu getClanMenu() {
+        return clanMenu;
+    }
+
     public FeatureManager getFeatureManager() {
         return featureManager;
     }
@@ -169,4 +212,25 @@ public final class ClanMasterPlugin extends JavaPlugin {
     public Economy getEconomy() {
         return economy;
     }
+
+    /**
+     * Returns the current settings snapshot; read it once per operation rather than caching it.
+     */
+    public ClanMasterSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Parses the loaded config into a new settings snapshot and publishes it.
+     */
+    public void reloadSettings() {
+        settings = ClanMasterSettings.load(getConfig(), getLogger());
+    }
+
+    /**
+     * Returns the PlaceholderAPI expansion, or null when PlaceholderAPI is not installed.
+     */
+    public ClanPlaceholderExpansion getPlaceholderExpansion() {
+        return placeholderExpansion;
+    }
 }
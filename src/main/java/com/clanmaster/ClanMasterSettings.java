@@ -0,0 +1,131 @@
+package com.clanmaster;
+
+import com.clanmaster.service.ClanRelation;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Immutable snapshot of the config values read on hot paths. Parsed once on enable and on every reload, so callers read
+ * plain fields instead of looking up string paths. Invalid values are reported when parsed and replaced by defaults.
+ */
+public record ClanMasterSettings(
+        double createCost,
+        double killReward,
+        double warWinReward,
+        int maxMembers,
+        int maxActiveWars,
+        double xpPerLevel,
+        double xpPerKill,
+        double xpWarKillBonus,
+        String tagFormat,
+        boolean tabHeaderEnabled,
+        String tabHeader,
+        String tabFooter,
+        Map<ClanRelation, String> relationColors) {
+
+    /**
+     * Parses the settings, logging each invalid value.
+     */
+    public static ClanMasterSettings load(FileConfiguration config, Logger logger) {
+        Parser parser = new Parser(config);
+        Map<ClanRelation, String> colors = new EnumMap<>(ClanRelation.class);
+        colors.put(ClanRelation.SAME, parser.string("display.relation-colors.same", "&a"));
+        colors.put(ClanRelation.ALLY, parser.string("display.relation-colors.ally", "&9"));
+        colors.put(ClanRelation.NEUTRAL, parser.string("display.relation-colors.neutral", "&f"));
+        colors.put(ClanRelation.ENEMY, parser.string("display.relation-colors.enemy", "&c"));
+        ClanMasterSettings settings = new ClanMasterSettings(
+                parser.number("costs.create", 500.0, 0),
+                parser.number("economy.kill-reward", 10.0, 0),
+                parser.number("economy.war-win-reward", 500.0, 0),
+                parser.integer("limits.max-members", 20, 1),
+                parser.integer("limits.max-active-wars", 3, 0),
+                parser.number("progress.xp-per-level", 1000.0, 1),
+                parser.number("progress.xp-per-kill", 10.0, 0),
+                parser.number("progress.xp-war-kill-bonus", 25.0, 0),
+                parser.string("display.tag-format", "&7[&#ff4faf{clan}&7] "),
+                parser.bool("display.tab-header.enabled", true),
+                parser.string("tab.header", "&#ff4faf✦ &fClan: &d{clan}"),
+                parser.string("tab.footer", "&#5fd9ff✦ &fPlayer: &b{player}"),
+                Collections.unmodifiableMap(colors));
+        parser.errors.forEach(error -> logger.warning("Invalid config value: " + error));
+        return settings;
+    }
+
+    public String relationColor(ClanRelation relation) {
+        return relationColors.get(relation);
+    }
+
+    /**
+     * Reads typed values and collects an error for each one that is present but unusable.
+     */
+    private static final class Parser {
+        private final FileConfiguration config;
+        private final List<String> errors = new ArrayList<>();
+
+        private Parser(FileConfiguration config) {
+            this.config = config;
+        }
+
+        private double number(String path, double def, double min) {
+            if (!config.isSet(path)) {
+                return def;
+            }
+            Object value = config.get(path);
+            if (!(value instanceof Number)) {
+                errors.add(path + " must be a number, was '" + value + "'; using " + def);
+                return def;
+            }
+            double parsed = ((Number) value).doubleValue();
+            if (parsed < min || Double.isNaN(parsed) || Double.isInfinite(parsed)) {
+                errors.add(path + " must be at least " + min + ", was " + parsed + "; using " + def);
+                return def;
+            }
+            return parsed;
+        }
+
+        private int integer(String path, int def, int min) {
+            if (!config.isSet(path)) {
+                return def;
+            }
+            Object value = config.get(path);
+            if (!(value instanceof Integer) && !(value instanceof Long)) {
+                errors.add(path + " must be a whole number, was '" + value + "'; using " + def);
+                return def;
+            }
+            long parsed = ((Number) value).longValue();
+            if (parsed < min || parsed > Integer.MAX_VALUE) {
+                errors.add(path + " must be at least " + min + ", was " + parsed + "; using " + def);
+                return def;
+            }
+            return (int) parsed;
+        }
+
+        private boolean bool(String path, boolean def) {
+            if (!config.isSet(path)) {
+                return def;
+            }
+            if (!config.isBoolean(path)) {
+                errors.add(path + " must be true or false, was '" + config.get(path) + "'; using " + def);
+                return def;
+            }
+            return config.getBoolean(path);
+        }
+
+        private String string(String path, String def) {
+            if (!config.isSet(path)) {
+                return def;
+            }
+            if (!config.isString(path)) {
+                errors.add(path + " must be text, was '" + config.get(path) + "'; using the default");
+                return def;
+            }
+            return config.getString(path, def);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.clanmaster.command;
 
 import com.clanmaster.ClanMasterPlugin;
+import com.clanmaster.data.SaveScheduler;
 import com.clanmaster.model.Clan;
+import com.clanmaster.placeholder.ClanPlaceholderExpansion;
 import com.clanmaster.service.ClanService;
 import com.clanmaster.util.Text;
 import org.bukkit.OfflinePlayer;
@@ -9,6 +11,8 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 
+import java.io.File;
+
 public class ClanAdminCommand implements CommandExecutor {
 
     private final ClanMasterPlugin plugin;
@@ -28,7 +32,7 @@ public class ClanAdminCommand implements CommandExecutor {
             return true;
         }
         if (args.length == 0) {
-            sender.sendMessage(Text.color("&7/clanadmin save|reload|disband <clan>|info <clan>|setcost|givexp|setwarpoints"));
+            sender.sendMessage(Text.color("&7/clanadmin save|reload|disband <clan>|info <clan>|setcost|givexp|setwarpoints|persistence|placeholders|export"));
             return true;
         }
         switch (args[0].toLowerCase()) {
@@ -36,9 +40,31 @@ public class ClanAdminCommand implements CommandExecutor {
                 clanService.save();
                 sender.sendMessage(Text.color("&aSaved."));
                 break;
+            case "persistence":
+                showPersistence(sender);
+                break;
+            case "placeholders":
+                showPlaceholders(sender);
+                break;
+            case "export":
+                String file = "export-" + System.currentTimeMillis() + ".json";
+                clanService.exportJson(new File(plugin.getDataFolder(), file).toPath(), ok -> {
+                    if (ok) {
+                        sender.sendMessage(Text.color("&aExported clans to " + file));
+                    } else {
+                        sender.sendMessage(Text.color("&cExport failed, see console."));
+                    }
+                });
+                break;
             case "reload":
                 plugin.reloadConfig();
+                plugin.reloadSettings();
                 messages.reload();
+                plugin.getFeatureManager().reload();
+                plugin.getClanMenu().reload();
+                if (plugin.getPlaceholderExpansion() != null) {
+                    plugin.getPlaceholderExpansion().reload();
+                }
                 sender.sendMessage(Text.color("&aReloaded config/messages."));
                 break;
             case "disband":
@@ -65,6 +91,7 @@ public class ClanAdminCommand implements CommandExecutor {
                     double val = Double.parseDouble(args[1]);
                     plugin.getConfig().set("costs.create", val);
                     plugin.saveConfig();
+                    plugin.reloadSettings();
                     sender.sendMessage(Text.color("&aCreate cost set to " + val));
                 } catch (NumberFormatException ex) {
                     sender.sendMessage(Text.color("&cInvalid number"));
@@ -93,7 +120,7 @@ public class ClanAdminCommand implements CommandExecutor {
                     var clanOpt = clanService.getClanByName(args[1]);
                     if (clanOpt.isPresent()) {
                         clanOpt.get().setWarPoints(points);
-                        clanService.saveAsync();
+                        clanService.saveAsync(clanOpt.get());
                         sender.sendMessage(Text.color("&aSet war points to " + points + " for " + args[1]));
                     } else {
                         sender.sendMessage(Text.color("&cClan not found"));
@@ -110,7 +137,7 @@ public class ClanAdminCommand implements CommandExecutor {
                 var clanOpt = clanService.getClanByName(args[1]);
                 if (clanOpt.isPresent()) {
                     clanOpt.get().getAchievements().add(args[2]);
-                    clanService.saveAsync();
+                    clanService.saveAsync(clanOpt.get());
                     sender.sendMessage(Text.color("&aAdded achievement " + args[2] + " to " + args[1]));
                 } else {
                     sender.sendMessage(Text.color("&cClan not found"));
@@ -126,7 +153,7 @@ public class ClanAdminCommand implements CommandExecutor {
                     var clanOpt2 = clanService.getClanByName(args[1]);
                     if (clanOpt2.isPresent()) {
                         clanOpt2.get().setLevel(level);
-                        clanService.saveAsync();
+                        clanService.saveAsync(clanOpt2.get());
                         sender.sendMessage(Text.color("&aSet level to " + level + " for " + args[1]));
                     } else {
                         sender.sendMessage(Text.color("&cClan not found"));
@@ -143,11 +170,37 @@ public class ClanAdminCommand implements CommandExecutor {
                 });
                 break;
             default:
-                sender.sendMessage(Text.color("&7/clanadmin save|reload|disband <clan>|info <clan>|setcost|givexp|setwarpoints"));
+                sender.sendMessage(Text.color("&7/clanadmin save|reload|disband <clan>|info <clan>|setcost|givexp|setwarpoints|persistence|placeholders|export"));
         }
         return true;
     }
 
+    private void showPersistence(CommandSender sender) {
+        SaveScheduler scheduler = clanService.getSaveScheduler();
+        sender.sendMessage(Text.color("&d&l=== Persistence ==="));
+        sender.sendMessage(Text.color("&7Queued requests: &e" + scheduler.getQueueDepth()
+                + " &7Flush scheduled: &e" + scheduler.isFlushScheduled()));
+        sender.sendMessage(Text.color("&7Flushes: &a" + scheduler.getFlushCount()
+                + " &7Coalesced requests: &a" + scheduler.getCoalescedRequests()));
+        sender.sendMessage(Text.color(String.format("&7Flush latency: last &b%.2fms &7avg &b%.2fms &7max &b%.2fms",
+                scheduler.getLastFlushMillis(), scheduler.getAverageFlushMillis(), scheduler.getMaxFlushMillis())));
+    }
+
+    private void showPlaceholders(CommandSender sender) {
+        ClanPlaceholderExpansion expansion = plugin.getPlaceholderExpansion();
+        if (expansion == null) {
+            sender.sendMessage(Text.color("&cPlaceholderAPI is not installed."));
+            return;
+        }
+        long hits = expansion.getCacheHits();
+        long misses = expansion.getCacheMisses();
+        long total = hits + misses;
+        sender.sendMessage(Text.color("&d&l=== Placeholders ==="));
+        sender.sendMessage(Text.color("&7Requests: &e" + total + " &7Cached results: &e" + expansion.getCachedResults()));
+        sender.sendMessage(Text.color(String.format("&7Hits: &a%d &7Misses: &c%d &7Hit rate: &b%.1f%%",
+                hits, misses, total == 0 ? 0.0 : hits * 100.0 / total)));
+    }
+
     private void showInfo(CommandSender sender, Clan clan) {
         sender.sendMessage(Text.color("&d&l=== Clan Info ==="));
         sender.sendMessage(Text.color("&dClan: &f" + clan.getName()));
@@ -1,23 +1,33 @@
 package com.clanmaster.command;
 
+import com.clanmaster.service.ChatChannel;
+import com.clanmaster.service.ClanChatService;
 import com.clanmaster.service.ClanService;
-import com.clanmaster.util.Text;
-import org.bukkit.Bukkit;
+import com.clanmaster.util.FeatureManager;
+import com.clanmaster.util.MessageResolver;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
 public class ClanChatCommand implements CommandExecutor, TabCompleter {
     private final ClanService clanService;
+    private final ClanChatService chat;
+    private final MessageResolver messages;
+    private final FeatureManager featureManager;
 
-    public ClanChatCommand(ClanService clanService) {
+    public ClanChatCommand(ClanService clanService, ClanChatService chat, MessageResolver messages,
+                           FeatureManager featureManager) {
         this.clanService = clanService;
+        this.chat = chat;
+        this.messages = messages;
+        this.featureManager = featureManager;
     }
 
     @Override
@@ -26,35 +36,46 @@ public class ClanChatCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage("Player only");
             return true;
         }
-        if (args.length == 0) {
-            player.sendMessage(Text.color("&7Usage: /" + label + " <message>"));
+        if (!featureManager.isClanChatEnabled()) {
+            player.sendMessage(messages.format(player, "chat.disabled"));
             return true;
         }
-        var clan = clanService.getClanOrNull(player.getUniqueId());
-        if (clan == null) {
-            player.sendMessage(Text.color("&cYou are not in a clan."));
+        if (clanService.getClanOrNull(player.getUniqueId()) == null) {
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return true;
         }
-        String msg = String.join(" ", args);
-        String formatted = Text.color("&d[Clan] &f" + player.getName() + ": &7" + msg);
-        clan.getMembers().keySet().forEach(uuid -> {
-            Player p = Bukkit.getPlayer(uuid);
-            if (p != null && p.isOnline()) {
-                p.sendMessage(formatted);
+        // No arguments toggles the clan channel, a channel name switches to it, anything else is sent to the clan once
+        ChatChannel selected = args.length == 0 ? ChatChannel.CLAN : args.length == 1 ? ChatChannel.parse(args[0]) : null;
+        if (selected != null) {
+            if (!chat.canUse(player, selected)) {
+                player.sendMessage(messages.format(player, "error.not-officer"));
+                return true;
             }
-        });
-        // spies
-        clanService.getSpyViewers().forEach(uuid -> {
-            Player p = Bukkit.getPlayer(uuid);
-            if (p != null && p.isOnline()) {
-                p.sendMessage(Text.color("&8[Spy] " + formatted));
+            if (clanService.getChatChannel(player.getUniqueId()) == selected) {
+                clanService.setChatChannel(player.getUniqueId(), null);
+                player.sendMessage(messages.format(player, "chat.channel-off"));
+            } else {
+                clanService.setChatChannel(player.getUniqueId(), selected);
+                player.sendMessage(messages.format(player, "chat.channel-set", "{channel}", selected.getId()));
             }
-        });
+            return true;
+        }
+        chat.send(player, ChatChannel.CLAN, String.join(" ", args));
         return true;
     }
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        return Collections.emptyList();
+        if (args.length != 1) {
+            return Collections.emptyList();
+        }
+        List<String> out = new ArrayList<>();
+        String prefix = args[0].toLowerCase(Locale.ROOT);
+        for (ChatChannel channel : ChatChannel.values()) {
+            if (channel.getId().startsWith(prefix)) {
+                out.add(channel.getId());
+            }
+        }
+        return out;
     }
 }
@@ -3,7 +3,9 @@ package com.clanmaster.command;
 import com.clanmaster.gui.ClanMenu;
 import com.clanmaster.model.Clan;
 import com.clanmaster.service.BonusService;
+import com.clanmaster.service.ClanMetric;
 import com.clanmaster.service.ClanService;
+import com.clanmaster.service.StatWindow;
 import com.clanmaster.util.MessageResolver;
 import com.clanmaster.util.Text;
 import com.clanmaster.util.FeatureManager;
@@ -84,7 +86,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
                 handleInfo(player, args);
                 break;
             case "top":
-                handleTop(player);
+                handleTop(player, args);
                 break;
             case "list":
                 handleList(player);
@@ -189,133 +191,135 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
                 handleMember(player, args);
                 break;
             default:
-                player.sendMessage(Text.color(messages.get("error.unknown")));
+                player.sendMessage(messages.format(player, "error.unknown"));
         }
         return true;
     }
 
     private void handleCreate(Player player, String[] args) {
         if (args.length < 2) {
-            player.sendMessage(Text.color(messages.get("usage.create")));
+            player.sendMessage(messages.format(player, "usage.create"));
             return;
         }
         String name = args[1];
-        double price = player.getServer().getPluginManager().getPlugin("ClanMaster").getConfig().getDouble("costs.create", 0);
-        if (economy != null && !player.hasPermission("clan.create.free")) {
-            if (!economy.has(player, price)) {
-                player.sendMessage(Text.color(messages.get("error.no-money")));
-                return;
-            }
-            economy.withdrawPlayer(player, price);
+        double price = clanService.getPlugin().getSettings().createCost();
+        boolean paid = economy != null && !player.hasPermission("clan.create.free") && price > 0;
+        // One withdrawal that the economy accepts or refuses, instead of a balance check it could outdate
+        if (paid && !economy.withdrawPlayer(player, price).transactionSuccess()) {
+            player.sendMessage(messages.format(player, "error.no-money"));
+            return;
         }
         boolean ok = clanService.createClan(name, player.getUniqueId());
+        if (!ok && paid) {
+            economy.depositPlayer(player, price);
+        }
         if (ok) {
-            player.sendMessage(Text.color(messages.get("clan.created").replace("{clan}", name)));
+            player.sendMessage(messages.format(player, "clan.created", "{clan}", name));
         } else {
-            player.sendMessage(Text.color(messages.get("error.create")));
+            player.sendMessage(messages.format(player, "error.create"));
         }
     }
 
     private void handleInvite(Player player, String[] args) {
         if (args.length < 2) {
-            player.sendMessage(Text.color(messages.get("usage.invite")));
+            player.sendMessage(messages.format(player, "usage.invite"));
             return;
         }
         OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         boolean ok = clanService.invite(clan.getName(), target.getUniqueId());
         if (ok) {
-            player.sendMessage(Text.color(messages.get("clan.invited").replace("{player}", target.getName())));
+            player.sendMessage(messages.format(player, "clan.invited", "{player}", target.getName()));
             if (target.isOnline()) {
-                ((Player) target).sendMessage(Text.color(messages.get("clan.invite-received").replace("{clan}", clan.getName())));
+                ((Player) target).sendMessage(messages.format((Player) target, "clan.invite-received", "{clan}", clan.getName()));
             }
         } else {
-            player.sendMessage(Text.color(messages.get("error.invite")));
+            player.sendMessage(messages.format(player, "error.invite"));
         }
     }
 
     private void handleKick(Player player, String[] args) {
         if (args.length < 2) {
-            player.sendMessage(Text.color(messages.get("usage.kick")));
+            player.sendMessage(messages.format(player, "usage.kick"));
             return;
         }
         OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         boolean ok = clanService.kickMember(clan.getName(), target.getUniqueId());
         if (ok) {
-            player.sendMessage(Text.color(messages.get("clan.kicked").replace("{player}", target.getName())));
+            player.sendMessage(messages.format(player, "clan.kicked", "{player}", target.getName()));
         } else {
-            player.sendMessage(Text.color(messages.get("error.kick")));
+            player.sendMessage(messages.format(player, "error.kick"));
         }
     }
 
     private void handlePromote(Player player, String[] args) {
         if (args.length < 2) {
-            player.sendMessage(Text.color(messages.get("usage.promote")));
+            player.sendMessage(messages.format(player, "usage.promote"));
             return;
         }
         OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
         boolean ok = clanService.promote(player.getUniqueId(), target.getUniqueId());
         if (ok) {
-            player.sendMessage(Text.color(messages.get("clan.promoted").replace("{player}", target.getName())));
+            player.sendMessage(messages.format(player, "clan.promoted", "{player}", target.getName()));
         } else {
-            player.sendMessage(Text.color(messages.get("error.promote")));
+            player.sendMessage(messages.format(player, "error.promote"));
         }
     }
 
     private void handleDemote(Player player, String[] args) {
         if (args.length < 2) {
-            player.sendMessage(Text.color(messages.get("usage.demote")));
+            player.sendMessage(messages.format(player, "usage.demote"));
             return;
         }
         OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
         boolean ok = clanService.demote(player.getUniqueId(), target.getUniqueId());
         if (ok) {
-            player.sendMessage(Text.color(messages.get("clan.demoted").replace("{player}", target.getName())));
+            player.sendMessage(messages.format(player, "clan.demoted", "{player}", target.getName()));
         } else {
-            player.sendMessage(Text.color(messages.get("error.demote")));
+            player.sendMessage(messages.format(player, "error.demote"));
         }
     }
 
     private void handleJoin(Player player) {
         boolean ok = clanService.joinFromInvite(player.getUniqueId());
         if (ok) {
-            player.sendMessage(Text.color(messages.get("clan.joined")));
+            player.sendMessage(messages.format(player, "clan.joined"));
         } else {
-            player.sendMessage(Text.color(messages.get("error.join")));
+            player.sendMessage(messages.format(player, "error.join"));
         }
     }
 
     private void handleLeave(Player player) {
         boolean ok = clanService.leaveClan(player.getUniqueId());
         if (ok) {
-            player.sendMessage(Text.color(messages.get("clan.left")));
+            player.sendMessage(messages.format(player, "clan.left"));
         } else {
-            player.sendMessage(Text.color(messages.get("error.leave")));
+            player.sendMessage(messages.format(player, "error.leave"));
         }
     }
 
     private void handleDisband(Player player) {
         var clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         var member = clan.getMembers().get(player.getUniqueId());
         if (member == null || member.getRank() != com.clanmaster.model.ClanRank.LEADER) {
-            player.sendMessage(Text.color(messages.get("error.not-leader")));
+            player.sendMessage(messages.format(player, "error.not-leader"));
             return;
         }
         clanService.deleteClan(clan.getName());
-        player.sendMessage(Text.color(messages.get("clan.disbanded").replace("{clan}", clan.getName())));
+        player.sendMessage(messages.format(player, "clan.disbanded", "{clan}", clan.getName()));
     }
 
     private void handleInfo(Player player, String[] args) {
@@ -325,14 +329,14 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         } else {
             var c = clanService.getClanOrNull(player.getUniqueId());
             if (c == null) {
-                player.sendMessage(Text.color(messages.get("error.no-clan")));
+                player.sendMessage(messages.format(player, "error.no-clan"));
                 return;
             }
             name = c.getName();
         }
         var opt = clanService.getClanByName(name);
         if (opt.isEmpty()) {
-            player.sendMessage(Text.color(messages.get("error.no-clan-name").replace("{clan}", name)));
+            player.sendMessage(messages.format(player, "error.no-clan-name", "{clan}", name));
             return;
         }
         var clan = opt.get();
@@ -344,11 +348,32 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(Text.color("&8&l╚══"));
     }
 
-    private void handleTop(Player player) {
-        player.sendMessage(Text.color("&6&l=== Top Clans by Level ==="));
-        clanService.topByLevel().forEach((rank, entry) -> {
-            player.sendMessage(Text.color("&e#" + rank + " &d" + entry.getName() + " &7LVL: &a" + entry.getLevel()));
-        });
+    private void handleTop(Player player, String[] args) {
+        if (args.length < 2 || args[1].equalsIgnoreCase("level")) {
+            player.sendMessage(Text.color("&6&l=== Top Clans by Level ==="));
+            clanService.topByLevel(10).forEach((rank, entry) -> {
+                player.sendMessage(Text.color("&e#" + rank + " &d" + entry.getName() + " &7LVL: &a" + entry.getLevel()));
+            });
+            return;
+        }
+        ClanMetric metric = ClanMetric.parse(args[1]);
+        StatWindow window = args.length > 2 ? StatWindow.parse(args[2]) : StatWindow.ALL;
+        if (metric == null || window == null) {
+            player.sendMessage(Text.color("&7Usage: /clan top [level|kills|kdr|bank|warpoints|wins|activity] [daily|weekly|season|all]"));
+            return;
+        }
+        player.sendMessage(Text.color("&6&l=== Top Clans by " + metric.getDisplayName() + " &7(" + window.getId() + ") &6&l==="));
+        List<Clan> top = clanService.getLeaderboards().top(metric, window, 0, 10);
+        for (int i = 0; i < top.size(); i++) {
+            Clan entry = top.get(i);
+            player.sendMessage(Text.color("&e#" + (i + 1) + " &d" + entry.getName() + " &7" + metric.getDisplayName()
+                    + ": &a" + clanService.formatStat(entry, metric, window)));
+        }
+        Clan own = clanService.getClanOrNull(player.getUniqueId());
+        if (own != null) {
+            int rank = clanService.getLeaderboards().rankOf(own, metric, window);
+            player.sendMessage(Text.color("&7Your clan: &e#" + rank + " &7(" + clanService.formatStat(own, metric, window) + "&7)"));
+        }
     }
 
     private void handleWarTop(Player player) {
@@ -365,37 +390,37 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         }
         String prefix = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
         boolean ok = clanService.setPrefix(player.getUniqueId(), prefix);
-        player.sendMessage(Text.color(ok ? messages.get("clan.prefix-set").replace("{prefix}", prefix) : messages.get("error.not-leader")));
+        player.sendMessage(ok ? messages.format(player, "clan.prefix-set", "{prefix}", prefix) : messages.format(player, "error.not-leader"));
     }
 
     private void handlePvp(Player player) {
         boolean state = clanService.togglePvp(player.getUniqueId());
-        player.sendMessage(Text.color(state ? messages.get("clan.pvp-on") : messages.get("clan.pvp-off")));
+        player.sendMessage(state ? messages.format(player, "clan.pvp-on") : messages.format(player, "clan.pvp-off"));
     }
 
     private void handleSetHome(Player player) {
         boolean ok = clanService.setHome(player.getUniqueId(), com.clanmaster.util.LocationUtil.toString(player.getLocation()));
-        player.sendMessage(Text.color(ok ? messages.get("clan.home-set") : messages.get("error.not-leader")));
+        player.sendMessage(ok ? messages.format(player, "clan.home-set") : messages.format(player, "error.not-leader"));
     }
 
     private void handleDelHome(Player player) {
         boolean ok = clanService.delHome(player.getUniqueId());
-        player.sendMessage(Text.color(ok ? messages.get("clan.home-set") : messages.get("error.not-leader")));
+        player.sendMessage(ok ? messages.format(player, "clan.home-set") : messages.format(player, "error.not-leader"));
     }
 
     private void handleHome(Player player) {
         String locString = clanService.getHome(player.getUniqueId());
         if (locString == null) {
-            player.sendMessage(Text.color(messages.get("clan.home-missing")));
+            player.sendMessage(messages.format(player, "clan.home-missing"));
             return;
         }
         var loc = com.clanmaster.util.LocationUtil.fromString(locString);
         if (loc == null) {
-            player.sendMessage(Text.color(messages.get("clan.home-missing")));
+            player.sendMessage(messages.format(player, "clan.home-missing"));
             return;
         }
         player.teleport(loc);
-        player.sendMessage(Text.color(messages.get("clan.home-teleport")));
+        player.sendMessage(messages.format(player, "clan.home-teleport"));
     }
 
     private void handleHomeCommand(Player player, String[] args, String sub) {
@@ -456,7 +481,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         }
         OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
         boolean ok = clanService.transfer(player.getUniqueId(), target.getUniqueId());
-        player.sendMessage(Text.color(ok ? messages.get("clan.transfer").replace("{player}", target.getName()) : messages.get("error.not-leader")));
+        player.sendMessage(ok ? messages.format(player, "clan.transfer", "{player}", target.getName()) : messages.format(player, "error.not-leader"));
     }
 
     private void handlePoints(Player player, String[] args) {
@@ -469,10 +494,10 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         boolean ok;
         if (args[1].equalsIgnoreCase("deposit")) {
             ok = clanService.pointsDeposit(player.getUniqueId(), amount, economy);
-            player.sendMessage(Text.color(ok ? messages.get("clan.points-deposit").replace("{amount}", String.valueOf(amount)) : messages.get("clan.points-fail")));
+            player.sendMessage(ok ? messages.format(player, "clan.points-deposit", "{amount}", String.valueOf(amount)) : messages.format(player, "clan.points-fail"));
         } else if (args[1].equalsIgnoreCase("withdraw")) {
             ok = clanService.pointsWithdraw(player.getUniqueId(), amount, economy);
-            player.sendMessage(Text.color(ok ? messages.get("clan.points-withdraw").replace("{amount}", String.valueOf(amount)) : messages.get("clan.points-fail")));
+            player.sendMessage(ok ? messages.format(player, "clan.points-withdraw", "{amount}", String.valueOf(amount)) : messages.format(player, "clan.points-fail"));
         }
     }
 
@@ -484,7 +509,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         boolean ok = args[1].equalsIgnoreCase("add")
                 ? clanService.allyAdd(player.getUniqueId(), args[2])
                 : clanService.allyRemove(player.getUniqueId(), args[2]);
-        player.sendMessage(Text.color(ok ? (args[1].equalsIgnoreCase("add") ? messages.get("clan.ally-add") : messages.get("clan.ally-remove")).replace("{clan}", args[2]) : messages.get("error.not-leader")));
+        player.sendMessage(ok ? messages.format(player, args[1].equalsIgnoreCase("add") ? "clan.ally-add" : "clan.ally-remove", "{clan}", args[2]) : messages.format(player, "error.not-leader"));
     }
 
     private void handleEnemy(Player player, String[] args) {
@@ -495,7 +520,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         boolean ok = args[1].equalsIgnoreCase("add")
                 ? clanService.enemyAdd(player.getUniqueId(), args[2])
                 : clanService.enemyRemove(player.getUniqueId(), args[2]);
-        player.sendMessage(Text.color(ok ? (args[1].equalsIgnoreCase("add") ? messages.get("clan.enemy-add") : messages.get("clan.enemy-remove")).replace("{clan}", args[2]) : messages.get("error.not-leader")));
+        player.sendMessage(ok ? messages.format(player, args[1].equalsIgnoreCase("add") ? "clan.enemy-add" : "clan.enemy-remove", "{clan}", args[2]) : messages.format(player, "error.not-leader"));
     }
 
     private void handleRename(Player player, String[] args) {
@@ -504,7 +529,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
             return;
         }
         boolean ok = clanService.rename(player.getUniqueId(), args[1]);
-        player.sendMessage(Text.color(ok ? "&aClan renamed to " + args[1] : messages.get("error.not-leader")));
+        player.sendMessage(Text.color(ok ? "&aClan renamed to " + args[1] : messages.get(player, "error.not-leader")));
     }
 
     private void handleDescription(Player player, String[] args) {
@@ -514,12 +539,12 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         }
         String desc = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
         boolean ok = clanService.setDescription(player.getUniqueId(), desc);
-        player.sendMessage(Text.color(ok ? "&aDescription updated." : messages.get("error.not-leader")));
+        player.sendMessage(Text.color(ok ? "&aDescription updated." : messages.get(player, "error.not-leader")));
     }
 
     private void handleList(Player player) {
         String list = clanService.listClans().stream().sorted().collect(Collectors.joining(", "));
-        player.sendMessage(Text.color(messages.get("clan.list").replace("{clans}", list)));
+        player.sendMessage(messages.format(player, "clan.list", "{clans}", list));
     }
 
     private void handleHelp(Player player) {
@@ -570,7 +595,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
     private void handleMotd(Player player, String[] args) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         if (args.length < 2) {
@@ -580,13 +605,13 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         }
         String motd = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
         boolean ok = clanService.setMotd(player.getUniqueId(), motd);
-        player.sendMessage(Text.color(ok ? "&aClan MOTD set to: &e" + motd : messages.get("error.not-leader")));
+        player.sendMessage(Text.color(ok ? "&aClan MOTD set to: &e" + motd : messages.get(player, "error.not-leader")));
     }
 
     private void handleActivity(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         String status = clanService.getActivityStatus(clan);
@@ -603,7 +628,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         }
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         
@@ -611,21 +636,21 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         
         // Check if declaring war on self
         if (clan.getName().equalsIgnoreCase(enemyClanName)) {
-            player.sendMessage(Text.color(messages.get("error.cannot-declare-war-self")));
+            player.sendMessage(messages.format(player, "error.cannot-declare-war-self"));
             return;
         }
         
         // Check if already at war
         if (clan.getActiveWars().containsKey(enemyClanName.toLowerCase(Locale.ROOT))) {
-            player.sendMessage(Text.color(messages.get("error.already-at-war")));
+            player.sendMessage(messages.format(player, "error.already-at-war"));
             return;
         }
         
         boolean ok = clanService.declareWar(player.getUniqueId(), enemyClanName);
         if (ok) {
-            player.sendMessage(Text.color(messages.get("clan.war-declared").replace("{clan}", enemyClanName)));
+            player.sendMessage(messages.format(player, "clan.war-declared", "{clan}", enemyClanName));
         } else {
-            player.sendMessage(Text.color(messages.get("error.not-leader")));
+            player.sendMessage(messages.format(player, "error.not-leader"));
         }
     }
 
@@ -636,17 +661,17 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         }
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         boolean ok = clanService.makePeace(player.getUniqueId(), args[1]);
-        player.sendMessage(Text.color(ok ? "&a☮ Peace made with &2" + args[1] + "&a!" : messages.get("error.not-leader")));
+        player.sendMessage(Text.color(ok ? "&a☮ Peace made with &2" + args[1] + "&a!" : messages.get(player, "error.not-leader")));
     }
 
     private void handleWars(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         player.sendMessage(Text.color("&c&l=== Active Wars ==="));
@@ -666,18 +691,18 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         }
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         String title = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
         boolean ok = clanService.setTitle(player.getUniqueId(), title);
-        player.sendMessage(Text.color(ok ? "&aClan title set to: &e" + title : messages.get("error.not-leader")));
+        player.sendMessage(Text.color(ok ? "&aClan title set to: &e" + title : messages.get(player, "error.not-leader")));
     }
 
     private void handleAchievements(Player player, String[] args) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         player.sendMessage(Text.color("&6&l=== Clan Achievements ==="));
@@ -693,7 +718,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
     private void handleClanStats(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         player.sendMessage(Text.color("&6&l=== Clan Statistics ==="));
@@ -710,21 +735,21 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
     private void handleMember(Player player, String[] args) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         player.sendMessage(Text.color("&6&l=== Clan Members ==="));
         clan.getMembers().forEach((uuid, member) -> {
-            OfflinePlayer p = Bukkit.getOfflinePlayer(uuid);
-            String status = p.isOnline() ? "&a[ONLINE]" : "&c[OFFLINE]";
-            player.sendMessage(Text.color("&f" + p.getName() + " &7- &e" + member.getRank().name() + " " + status));
+            String status = Bukkit.getPlayer(uuid) != null ? "&a[ONLINE]" : "&c[OFFLINE]";
+            String name = clanService.getProfiles().name(uuid, "Unknown");
+            player.sendMessage(Text.color("&f" + name + " &7- &e" + member.getRank().name() + " " + status));
         });
     }
 
     private void handleBank(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) {
-            player.sendMessage(Text.color(messages.get("error.no-clan")));
+            player.sendMessage(messages.format(player, "error.no-clan"));
             return;
         }
         player.sendMessage(Text.color("&6&l=== Clan Bank ==="));
@@ -740,7 +765,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         double amount;
         try { amount = Double.parseDouble(args[1]); } catch (NumberFormatException ex) { player.sendMessage(Text.color("&cInvalid amount")); return; }
         boolean ok = clanService.pointsDeposit(player.getUniqueId(), amount, economy);
-        player.sendMessage(Text.color(ok ? "&aDeposited &e" + amount + " &apoints." : messages.get("clan.points-fail")));
+        player.sendMessage(Text.color(ok ? "&aDeposited &e" + amount + " &apoints." : messages.get(player, "clan.points-fail")));
     }
 
     private void handleWithdraw(Player player, String[] args) {
@@ -751,7 +776,7 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
         double amount;
         try { amount = Double.parseDouble(args[1]); } catch (NumberFormatException ex) { player.sendMessage(Text.color("&cInvalid amount")); return; }
         boolean ok = clanService.pointsWithdraw(player.getUniqueId(), amount, economy);
-        player.sendMessage(Text.color(ok ? "&aWithdrew &e" + amount + " &apoints." : messages.get("clan.points-fail")));
+        player.sendMessage(Text.color(ok ? "&aWithdrew &e" + amount + " &apoints." : messages.get(player, "clan.points-fail")));
     }
 
     @Override
@@ -788,8 +813,18 @@ public class ClanCommand implements CommandExecutor, TabCompleter {
                     return List.of("<text>");
                 case "create":
                     return List.of("<name>");
+                case "top":
+                    List<String> metrics = new ArrayList<>();
+                    metrics.add("level");
+                    for (ClanMetric metric : ClanMetric.values()) {
+                        metrics.add(metric.getId());
+                    }
+                    return metrics;
             }
         }
+        if (args.length == 3 && args[0].equalsIgnoreCase("top") && !args[1].equalsIgnoreCase("level")) {
+            return Arrays.stream(StatWindow.values()).map(StatWindow::getId).toList();
+        }
         if (args.length == 3 && args[0].equalsIgnoreCase("ally")) {
             return clanService.listClans();
         }
@@ -3,8 +3,7 @@ package com.clanmaster.data;
 import com.clanmaster.model.Clan;
 
 import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
 /**
  * Abstraction for persistence layer.
@@ -25,6 +24,20 @@ public interface ClanStorage {
      */
     void saveAll(Map<String, Clan> clans);
 
+    /**
+     * Persists only what changed since the last flush. Storing a clan replaces whatever was stored under its name,
+     * and deletions are applied before saves.
+     *
+     * @param changed clans modified since the last flush, keyed by lower-case name
+     * @param deleted names of clans removed since the last flush
+     * @return true if the backend accepted the batch
+     */
+    default boolean saveChanges(Map<String, Clan> changed, Set<String> deleted) {
+        deleted.forEach(this::deleteClan);
+        changed.values().forEach(this::saveClan);
+        return true;
+    }
+
     /**
      * Persists a single clan.
      */
@@ -36,7 +49,8 @@ public interface ClanStorage {
     void deleteClan(String name);
 
     /**
-     * Resolves clan by player id.
+     * Releases files and connections held by the backend. Called once after the final flush.
      */
-    Optional<Clan> findByPlayer(UUID playerId, Map<String, Clan> clans);
+    default void close() {
+    }
 }
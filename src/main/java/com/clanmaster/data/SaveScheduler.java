@@ -0,0 +1,154 @@
+package com.clanmaster.data;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs storage flushes on a single writer thread. Save requests are debounced and coalesced, so any number of
+ * requests arriving while a flush is waiting or running result in exactly one follow-up flush.
+ */
+public class SaveScheduler {
+
+    private final Runnable flush;
+    private final Logger logger;
+    private final long debounceMillis;
+    private final long minIntervalMillis;
+    private final int maxPending;
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+
+    private ScheduledFuture<?> pendingTask;
+    private boolean closed;
+
+    private volatile long lastFlushEnd;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile long totalFlushNanos;
+    private volatile long flushCount;
+    private volatile long coalescedRequests;
+
+    /**
+     * Creates the scheduler and its writer thread.
+     *
+     * @param flush             task persisting pending changes
+     * @param debounceMillis    quiet time to wait for more requests before flushing
+     * @param minIntervalMillis minimum time between the end of one flush and the start of the next
+     * @param maxPending        request count that cuts the debounce short
+     */
+    public SaveScheduler(Runnable flush, long debounceMillis, long minIntervalMillis, int maxPending, Logger logger) {
+        this.flush = flush;
+        this.logger = logger;
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.minIntervalMillis = Math.max(0, minIntervalMillis);
+        this.maxPending = Math.max(1, maxPending);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ClanMaster-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Requests a flush. Cheap enough to call on every mutation.
+     */
+    public void request() {
+        int pending = pendingRequests.incrementAndGet();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (pendingTask == null) {
+                pendingTask = executor.schedule(this::run, delay(debounceMillis), TimeUnit.MILLISECONDS);
+            } else if (pending >= maxPending && pendingTask.getDelay(TimeUnit.MILLISECONDS) > 0 && pendingTask.cancel(false)) {
+                // Backpressure: too many changes are piling up, stop waiting for the debounce window
+                pendingTask = executor.schedule(this::run, delay(0), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private long delay(long wanted) {
+        long sinceLast = System.currentTimeMillis() - lastFlushEnd;
+        return Math.max(wanted, minIntervalMillis - sinceLast);
+    }
+
+    private void run() {
+        synchronized (this) {
+            pendingTask = null;
+        }
+        int batch = pendingRequests.getAndSet(0);
+        long start = System.nanoTime();
+        try {
+            flush.run();
+        } catch (Exception ex) {
+            logger.warning("Failed to flush clans: " + ex.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        lastFlushEnd = System.currentTimeMillis();
+        lastFlushNanos = elapsed;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+        totalFlushNanos += elapsed;
+        flushCount++;
+        coalescedRequests += Math.max(0, batch - 1);
+    }
+
+    /**
+     * Stops the writer thread and runs a final flush on the calling thread.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (pendingTask != null) {
+                pendingTask.cancel(false);
+                pendingTask = null;
+            }
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Writer thread did not finish in time.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        pendingRequests.set(0);
+        flush.run();
+    }
+
+    /**
+     * Returns save requests not yet picked up by a flush.
+     */
+    public int getQueueDepth() {
+        return pendingRequests.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    public long getCoalescedRequests() {
+        return coalescedRequests;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushNanos / 1_000_000.0;
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushCount;
+        return count == 0 ? 0 : totalFlushNanos / 1_000_000.0 / count;
+    }
+
+    public boolean isFlushScheduled() {
+        synchronized (this) {
+            return pendingTask != null;
+        }
+    }
+}
@@ -6,5 +6,6 @@ package com.clanmaster.data;
 public enum StorageType {
     JSON,
     SQLITE,
-    MYSQL
+    MYSQL,
+    JOURNAL
 }
@@ -0,0 +1,320 @@
+package com.clanmaster.data.journal;
+
+import com.clanmaster.model.Clan;
+import com.clanmaster.model.ClanMember;
+import com.clanmaster.model.ClanRank;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Versioned binary clan snapshot. Strings and UUIDs are written once into lookup tables and referenced by index,
+ * numbers are fixed width, and files are read in one go into a heap {@link ByteBuffer} so loading skips both
+ * reflection and stream copies. The file is not memory-mapped: a mapping outlives the channel until it is garbage
+ * collected, and on Windows it would block compaction from replacing the snapshot.
+ *
+ * <pre>
+ * int magic, short version, long generation
+ * int strings, { int length, utf8 bytes }
+ * int uuids, { long most, long least }
+ * int clans, { clan record }
+ * </pre>
+ */
+final class BinarySnapshot {
+
+    private static final int MAGIC = 0x434D534E;
+    private static final short VERSION = 1;
+    private static final byte HAS_KILLS = 1;
+    private static final byte HAS_DEATHS = 2;
+    private static final byte HAS_DAILY_KILLS = 4;
+    private static final byte HAS_POINTS = 8;
+    private static final byte HAS_JOIN_AT = 16;
+
+    /** Journal generation recorded in the snapshot together with its clans. */
+    record Contents(long generation, List<Clan> clans) {
+    }
+
+    private BinarySnapshot() {
+    }
+
+    static Contents read(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buf.getInt() != MAGIC) {
+                throw new IOException("not a clan snapshot");
+            }
+            short version = buf.getShort();
+            if (version != VERSION) {
+                throw new IOException("unsupported snapshot version " + version);
+            }
+            long generation = buf.getLong();
+            String[] strings = new String[buf.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buf.getInt()];
+                buf.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            UUID[] uuids = new UUID[buf.getInt()];
+            for (int i = 0; i < uuids.length; i++) {
+                uuids[i] = new UUID(buf.getLong(), buf.getLong());
+            }
+            int count = buf.getInt();
+            List<Clan> clans = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                clans.add(readClan(buf, strings, uuids));
+            }
+            return new Contents(generation, clans);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IOException("truncated clan snapshot", ex);
+        }
+    }
+
+    private static Clan readClan(ByteBuffer buf, String[] strings, UUID[] uuids) {
+        Clan clan = new Clan(string(buf, strings));
+        clan.setLevel(buf.getInt());
+        clan.setXp(buf.getDouble());
+        clan.setCoins(buf.getDouble());
+        clan.setDescription(string(buf, strings));
+        clan.setPrefix(string(buf, strings));
+        clan.setFriendlyFire(buf.get() != 0);
+        clan.setHome(string(buf, strings));
+        clan.setPoints(buf.getDouble());
+        clan.setMotd(string(buf, strings));
+        clan.setTitle(string(buf, strings));
+        clan.setWarPoints(buf.getInt());
+        clan.setWins(buf.getInt());
+        clan.setLosses(buf.getInt());
+        clan.setLastActivity(buf.getLong());
+        clan.setLastDailyReset(buf.getLong());
+
+        int members = buf.getInt();
+        for (int i = 0; i < members; i++) {
+            UUID uuid = uuids[buf.getInt()];
+            clan.getMembers().put(uuid, new ClanMember(uuid, ClanRank.valueOf(string(buf, strings))));
+        }
+        int stats = buf.getInt();
+        for (int i = 0; i < stats; i++) {
+            UUID uuid = uuids[buf.getInt()];
+            byte flags = buf.get();
+            int kills = buf.getInt();
+            int deaths = buf.getInt();
+            int dailyKills = buf.getInt();
+            double points = buf.getDouble();
+            long joinAt = buf.getLong();
+            if ((flags & HAS_KILLS) != 0) {
+                clan.getKills().put(uuid, kills);
+            }
+            if ((flags & HAS_DEATHS) != 0) {
+                clan.getDeaths().put(uuid, deaths);
+            }
+            if ((flags & HAS_DAILY_KILLS) != 0) {
+                clan.getDailyKills().put(uuid, dailyKills);
+            }
+            if ((flags & HAS_POINTS) != 0) {
+                clan.getPlayerPoints().put(uuid, points);
+            }
+            if ((flags & HAS_JOIN_AT) != 0) {
+                clan.getJoinAt().put(uuid, joinAt);
+            }
+        }
+        readStrings(buf, strings, clan.getAllies());
+        readStrings(buf, strings, clan.getEnemies());
+        readStrings(buf, strings, clan.getAchievements());
+        readStrings(buf, strings, clan.getLockedChests());
+        int wars = buf.getInt();
+        for (int i = 0; i < wars; i++) {
+            String key = string(buf, strings);
+            Clan.War war = new Clan.War(string(buf, strings), buf.getLong());
+            war.setKillsClan1(buf.getInt());
+            war.setKillsClan2(buf.getInt());
+            war.setActive(buf.get() != 0);
+            clan.getActiveWars().put(key, war);
+        }
+        return clan;
+    }
+
+    private static String string(ByteBuffer buf, String[] strings) {
+        int index = buf.getInt();
+        return index < 0 ? null : strings[index];
+    }
+
+    private static void readStrings(ByteBuffer buf, String[] strings, Set<String> target) {
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            target.add(string(buf, strings));
+        }
+    }
+
+    static void write(Path file, long generation, Collection<Clan> clans) throws IOException {
+        Tables tables = new Tables();
+        for (Clan clan : clans) {
+            tables.collect(clan);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(generation);
+            out.writeInt(tables.strings.size());
+            for (String value : tables.strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(tables.uuids.size());
+            for (UUID uuid : tables.uuids) {
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            out.writeInt(clans.size());
+            for (Clan clan : clans) {
+                writeClan(out, tables, clan);
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    private static void writeClan(DataOutputStream out, Tables tables, Clan clan) throws IOException {
+        out.writeInt(tables.string(clan.getName()));
+        out.writeInt(clan.getLevel());
+        out.writeDouble(clan.getXp());
+        out.writeDouble(clan.getCoins());
+        out.writeInt(tables.string(clan.getDescription()));
+        out.writeInt(tables.string(clan.getPrefix()));
+        out.writeByte(clan.isFriendlyFire() ? 1 : 0);
+        out.writeInt(tables.string(clan.getHome()));
+        out.writeDouble(clan.getPoints());
+        out.writeInt(tables.string(clan.getMotd()));
+        out.writeInt(tables.string(clan.getTitle()));
+        out.writeInt(clan.getWarPoints());
+        out.writeInt(clan.getWins());
+        out.writeInt(clan.getLosses());
+        out.writeLong(clan.getLastActivity());
+        out.writeLong(clan.getLastDailyReset());
+
+        out.writeInt(clan.getMembers().size());
+        for (ClanMember member : clan.getMembers().values()) {
+            out.writeInt(tables.uuid(member.getUuid()));
+            out.writeInt(tables.string(member.getRank().name()));
+        }
+        Set<UUID> players = statPlayers(clan);
+        out.writeInt(players.size());
+        for (UUID uuid : players) {
+            Integer kills = clan.getKills().get(uuid);
+            Integer deaths = clan.getDeaths().get(uuid);
+            Integer dailyKills = clan.getDailyKills().get(uuid);
+            Double points = clan.getPlayerPoints().get(uuid);
+            Long joinAt = clan.getJoinAt().get(uuid);
+            int flags = (kills != null ? HAS_KILLS : 0) | (deaths != null ? HAS_DEATHS : 0)
+                    | (dailyKills != null ? HAS_DAILY_KILLS : 0) | (points != null ? HAS_POINTS : 0)
+                    | (joinAt != null ? HAS_JOIN_AT : 0);
+            out.writeInt(tables.uuid(uuid));
+            out.writeByte(flags);
+            out.writeInt(kills != null ? kills : 0);
+            out.writeInt(deaths != null ? deaths : 0);
+            out.writeInt(dailyKills != null ? dailyKills : 0);
+            out.writeDouble(points != null ? points : 0);
+            out.writeLong(joinAt != null ? joinAt : 0);
+        }
+        writeStrings(out, tables, clan.getAllies());
+        writeStrings(out, tables, clan.getEnemies());
+        writeStrings(out, tables, clan.getAchievements());
+        writeStrings(out, tables, clan.getLockedChests());
+        out.writeInt(clan.getActiveWars().size());
+        for (Map.Entry<String, Clan.War> entry : clan.getActiveWars().entrySet()) {
+            Clan.War war = entry.getValue();
+            out.writeInt(tables.string(entry.getKey()));
+            out.writeInt(tables.string(war.getEnemyClan()));
+            out.writeLong(war.getStartTime());
+            out.writeInt(war.getKillsClan1());
+            out.writeInt(war.getKillsClan2());
+            out.writeByte(war.isActive() ? 1 : 0);
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, Tables tables, Set<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeInt(tables.string(value));
+        }
+    }
+
+    private static Set<UUID> statPlayers(Clan clan) {
+        Set<UUID> players = new HashSet<>(clan.getKills().keySet());
+        players.addAll(clan.getDeaths().keySet());
+        players.addAll(clan.getDailyKills().keySet());
+        players.addAll(clan.getPlayerPoints().keySet());
+        players.addAll(clan.getJoinAt().keySet());
+        return players;
+    }
+
+    /**
+     * Deduplicated string and UUID tables built in a first pass over the clans.
+     */
+    private static final class Tables {
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+        private final List<UUID> uuids = new ArrayList<>();
+        private final Map<UUID, Integer> uuidIndex = new HashMap<>();
+
+        private void collect(Clan clan) {
+            string(clan.getName());
+            string(clan.getDescription());
+            string(clan.getPrefix());
+            string(clan.getHome());
+            string(clan.getMotd());
+            string(clan.getTitle());
+            clan.getMembers().values().forEach(member -> {
+                uuid(member.getUuid());
+                string(member.getRank().name());
+            });
+            statPlayers(clan).forEach(this::uuid);
+            clan.getAllies().forEach(this::string);
+            clan.getEnemies().forEach(this::string);
+            clan.getAchievements().forEach(this::string);
+            clan.getLockedChests().forEach(this::string);
+            clan.getActiveWars().forEach((key, war) -> {
+                string(key);
+                string(war.getEnemyClan());
+            });
+        }
+
+        private int string(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return stringIndex.computeIfAbsent(value, v -> {
+                strings.add(v);
+                return strings.size() - 1;
+            });
+        }
+
+        private int uuid(UUID value) {
+            return uuidIndex.computeIfAbsent(value, v -> {
+                uuids.add(v);
+                return uuids.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.clanmaster.data.journal;
+
+import com.clanmaster.data.ClanStorage;
+import com.clanmaster.data.json.ClanAdapter;
+import com.clanmaster.data.json.ClanGson;
+import com.clanmaster.data.json.ClanJsonFormat;
+import com.clanmaster.model.Clan;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Write-ahead journal storage. Every flush appends one NDJSON record per changed or deleted clan and commits the whole
+ * group with a single fsync. Once the journal outgrows its limit, and again on shutdown, it is folded into a
+ * {@link BinarySnapshot} and a new journal generation starts, so startup maps one snapshot and replays a bounded tail.
+ * An {@code import.json} dropped into the folder replaces the stored clans on the next start.
+ */
+public class JournalClanStorage implements ClanStorage {
+
+    private static final String SNAPSHOT = "snapshot.bin";
+    private static final String LEGACY_SNAPSHOT = "snapshot.json";
+    private static final String IMPORT = "import.json";
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".ndjson";
+
+    private final Path directory;
+    private final Logger logger;
+    private final long compactBytes;
+    private final boolean fsync;
+    private final Gson gson = ClanGson.create(false);
+    private final ClanAdapter clanAdapter = new ClanAdapter();
+    /** Latest journaled clan per lower-case name, folded into the next snapshot. */
+    private final Map<String, Clan> state = new HashMap<>();
+
+    private long generation;
+    private FileChannel journal;
+    private long journalSize;
+    private long compactions;
+
+    /**
+     * Creates the storage.
+     *
+     * @param directory     folder holding the snapshot and journal files
+     * @param compactBytes  journal size that triggers compaction into a new snapshot
+     * @param fsync         whether each group commit is forced to disk
+     */
+    public JournalClanStorage(Path directory, long compactBytes, boolean fsync, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+        this.compactBytes = Math.max(1024, compactBytes);
+        this.fsync = fsync;
+    }
+
+    @Override
+    public synchronized Map<String, Clan> loadAll() {
+        state.clear();
+        try {
+            Files.createDirectories(directory);
+            readSnapshot();
+            List<Long> generations = journalGenerations();
+            for (long gen : generations) {
+                if (gen >= generation) {
+                    replay(journalFile(gen));
+                }
+            }
+            long latest = generations.isEmpty() ? generation : Math.max(generation, generations.get(generations.size() - 1));
+            openJournal(latest);
+            importJson();
+        } catch (Exception ex) {
+            logger.warning("Failed to load clan journal: " + ex.getMessage());
+            return Collections.emptyMap();
+        }
+        Map<String, Clan> clans = new HashMap<>();
+        state.values().forEach(clan -> clans.put(clan.getName(), clan));
+        return clans;
+    }
+
+    private void readSnapshot() throws IOException {
+        generation = 0;
+        Path file = directory.resolve(SNAPSHOT);
+        if (Files.exists(file)) {
+            BinarySnapshot.Contents contents = BinarySnapshot.read(file);
+            generation = contents.generation();
+            contents.clans().forEach(clan -> state.put(key(clan.getName()), clan));
+            return;
+        }
+        Path legacy = directory.resolve(LEGACY_SNAPSHOT);
+        if (!Files.exists(legacy)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(legacy, StandardCharsets.UTF_8)) {
+            Snapshot snapshot = gson.fromJson(reader, Snapshot.class);
+            if (snapshot == null) {
+                return;
+            }
+            generation = snapshot.generation;
+            if (snapshot.clans != null) {
+                snapshot.clans.forEach(clan -> state.put(key(clan.getName()), clan));
+            }
+        }
+    }
+
+    /**
+     * Replaces the loaded clans with an {@code import.json} export and folds it straight into a snapshot.
+     */
+    private void importJson() throws IOException {
+        Path file = directory.resolve(IMPORT);
+        if (!Files.exists(file)) {
+            return;
+        }
+        Map<String, Clan> imported = ClanJsonFormat.read(file);
+        state.clear();
+        imported.values().forEach(clan -> state.put(key(clan.getName()), clan));
+        compact();
+        Files.move(file, directory.resolve(IMPORT + ".done"), StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Imported " + imported.size() + " clans from " + IMPORT + ".");
+    }
+
+    /**
+     * Applies journal records in order. A torn record at the end of the file, left by a crash mid-append, is cut off;
+     * a complete last record missing only its newline is kept and the newline written back.
+     */
+    private void replay(Path file) throws IOException {
+        long good = 0;
+        long offset = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (line.isEmpty()) {
+                    good = offset;
+                    continue;
+                }
+                try {
+                    apply(line);
+                    good = offset;
+                } catch (Exception ex) {
+                    logger.warning("Ignoring damaged journal record in " + file.getFileName() + ": " + ex.getMessage());
+                    break;
+                }
+            }
+        }
+        // offset counts a newline after every line, so a last record that lost its newline ends one byte past the file
+        long size = Files.size(file);
+        if (good > size) {
+            // The record itself is whole; restore its newline so the next append does not join onto the same line
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}));
+            }
+        } else if (good < size) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(good);
+            }
+        }
+    }
+
+    /**
+     * Applies one record. Records are {@code {"t":"put","c":{clan}}} or {@code {"t":"del","n":name}}.
+     */
+    private void apply(String line) throws IOException {
+        JsonReader in = new JsonReader(new StringReader(line));
+        Clan clan = null;
+        String deleted = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "c":
+                    clan = clanAdapter.read(in);
+                    break;
+                case "n":
+                    deleted = in.nextString();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        if (clan != null) {
+            state.put(key(clan.getName()), clan);
+        } else if (deleted != null) {
+            state.remove(key(deleted));
+        } else {
+            throw new IOException("record without clan or name");
+        }
+    }
+
+    @Override
+    public synchronized boolean saveChanges(Map<String, Clan> changed, Set<String> deleted) {
+        if (changed.isEmpty() && deleted.isEmpty()) {
+            return true;
+        }
+        StringWriter batch = new StringWriter();
+        try {
+            for (String name : deleted) {
+                JsonWriter out = new JsonWriter(batch);
+                out.beginObject().name("t").value("del").name("n").value(name).endObject();
+                batch.write('\n');
+            }
+            for (Clan clan : changed.values()) {
+                JsonWriter out = new JsonWriter(batch);
+                out.beginObject().name("t").value("put").name("c");
+                clanAdapter.write(out, clan);
+                out.endObject();
+                batch.write('\n');
+            }
+            if (journal == null) {
+                Files.createDirectories(directory);
+                openJournal(generation);
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                journalSize += journal.write(bytes);
+            }
+            // One force per flush: the group commit that bounds what a crash can lose
+            if (fsync) {
+                journal.force(false);
+            }
+        } catch (IOException ex) {
+            logger.warning("Failed to append clan journal: " + ex.getMessage());
+            return false;
+        }
+        deleted.forEach(name -> state.remove(key(name)));
+        changed.values().forEach(clan -> state.put(key(clan.getName()), clan));
+        if (journalSize >= compactBytes) {
+            compact();
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void saveAll(Map<String, Clan> clans) {
+        state.clear();
+        clans.values().forEach(clan -> state.put(key(clan.getName()), clan));
+        compact();
+    }
+
+    /**
+     * Folds the journal into a new snapshot. The next journal generation is opened before the snapshot is renamed
+     * into place, so a crash at any point leaves a snapshot plus every journal written after it.
+     */
+    private void compact() {
+        long next = generation + 1;
+        try {
+            Files.createDirectories(directory);
+            openJournal(next);
+            Path target = directory.resolve(SNAPSHOT);
+            Path temp = directory.resolve(SNAPSHOT + ".tmp");
+            BinarySnapshot.write(temp, next, new ArrayList<>(state.values()));
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            generation = next;
+            compactions++;
+            Files.deleteIfExists(directory.resolve(LEGACY_SNAPSHOT));
+            for (long gen : journalGenerations()) {
+                if (gen < next) {
+                    Files.deleteIfExists(journalFile(gen));
+                }
+            }
+        } catch (IOException ex) {
+            logger.warning("Failed to compact clan journal: " + ex.getMessage());
+        }
+    }
+
+    private void openJournal(long gen) throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+        journal = FileChannel.open(journalFile(gen), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        journalSize = journal.size();
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, JOURNAL_PREFIX + "*" + JOURNAL_SUFFIX)) {
+            for (Path path : stream) {
+                String file = path.getFileName().toString();
+                try {
+                    generations.add(Long.parseLong(file.substring(JOURNAL_PREFIX.length(), file.length() - JOURNAL_SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    private Path journalFile(long gen) {
+        return directory.resolve(JOURNAL_PREFIX + gen + JOURNAL_SUFFIX);
+    }
+
+    @Override
+    public void saveClan(Clan clan) {
+        saveChanges(Map.of(key(clan.getName()), clan), Set.of());
+    }
+
+    @Override
+    public void deleteClan(String name) {
+        saveChanges(Map.of(), Set.of(name));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (journal == null) {
+            return;
+        }
+        if (journalSize > 0) {
+            // Shutdown snapshot: the next start maps it instead of replaying this journal
+            compact();
+        }
+        try {
+            journal.close();
+        } catch (IOException ex) {
+            logger.warning("Failed to close clan journal: " + ex.getMessage());
+        }
+        journal = null;
+    }
+
+    public synchronized long getJournalSize() {
+        return journalSize;
+    }
+
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Snapshot layout written before the binary format: every clan plus the first journal generation not yet folded in.
+     */
+    private static final class Snapshot {
+        private long generation;
+        private List<Clan> clans;
+    }
+}
@@ -0,0 +1,241 @@
+package com.clanmaster.data.json;
+
+import com.clanmaster.model.Clan;
+import com.clanmaster.model.ClanMember;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Streams {@link Clan} token by token without reflection or an intermediate tree. Field names match what reflection
+ * produced, so existing files load unchanged; fields missing from a file keep the model defaults.
+ */
+public class ClanAdapter extends TypeAdapter<Clan> {
+
+    private final ClanMemberAdapter members = new ClanMemberAdapter();
+    private final WarAdapter wars = new WarAdapter();
+
+    @Override
+    public void write(JsonWriter out, Clan clan) throws IOException {
+        if (clan == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(clan.getName());
+        out.name("level").value(clan.getLevel());
+        out.name("xp").value(clan.getXp());
+        out.name("members").beginObject();
+        for (Map.Entry<UUID, ClanMember> entry : clan.getMembers().entrySet()) {
+            out.name(entry.getKey().toString());
+            members.write(out, entry.getValue());
+        }
+        out.endObject();
+        out.name("description").value(clan.getDescription());
+        out.name("coins").value(clan.getCoins());
+        out.name("prefix").value(clan.getPrefix());
+        out.name("friendlyFire").value(clan.isFriendlyFire());
+        out.name("home").value(clan.getHome());
+        writeStrings(out, "allies", clan.getAllies());
+        writeStrings(out, "enemies", clan.getEnemies());
+        out.name("points").value(clan.getPoints());
+        out.name("playerPoints").beginObject();
+        for (Map.Entry<UUID, Double> entry : clan.getPlayerPoints().entrySet()) {
+            out.name(entry.getKey().toString()).value(entry.getValue());
+        }
+        out.endObject();
+        writeInts(out, "kills", clan.getKills());
+        writeInts(out, "deaths", clan.getDeaths());
+        out.name("joinAt").beginObject();
+        for (Map.Entry<UUID, Long> entry : clan.getJoinAt().entrySet()) {
+            out.name(entry.getKey().toString()).value(entry.getValue());
+        }
+        out.endObject();
+        writeStrings(out, "lockedChests", clan.getLockedChests());
+        out.name("motd").value(clan.getMotd());
+        out.name("activeWars").beginObject();
+        for (Map.Entry<String, Clan.War> entry : clan.getActiveWars().entrySet()) {
+            out.name(entry.getKey());
+            wars.write(out, entry.getValue());
+        }
+        out.endObject();
+        writeStrings(out, "achievements", clan.getAchievements());
+        out.name("title").value(clan.getTitle());
+        out.name("warPoints").value(clan.getWarPoints());
+        out.name("wins").value(clan.getWins());
+        out.name("losses").value(clan.getLosses());
+        out.name("lastActivity").value(clan.getLastActivity());
+        writeInts(out, "dailyKills", clan.getDailyKills());
+        out.name("lastDailyReset").value(clan.getLastDailyReset());
+        out.endObject();
+    }
+
+    private static void writeStrings(JsonWriter out, String field, Set<String> values) throws IOException {
+        out.name(field).beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    private static void writeInts(JsonWriter out, String field, Map<UUID, Integer> values) throws IOException {
+        out.name(field).beginObject();
+        for (Map.Entry<UUID, Integer> entry : values.entrySet()) {
+            out.name(entry.getKey().toString()).value(entry.getValue());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public Clan read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Clan clan = new Clan("");
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "name":
+                    clan.setName(in.nextString());
+                    break;
+                case "level":
+                    clan.setLevel(in.nextInt());
+                    break;
+                case "xp":
+                    clan.setXp(in.nextDouble());
+                    break;
+                case "members":
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        UUID uuid = UUID.fromString(in.nextName());
+                        ClanMember member = members.read(in);
+                        if (member != null) {
+                            clan.getMembers().put(uuid, member);
+                        }
+                    }
+                    in.endObject();
+                    break;
+                case "description":
+                    clan.setDescription(in.nextString());
+                    break;
+                case "coins":
+                    clan.setCoins(in.nextDouble());
+                    break;
+                case "prefix":
+                    clan.setPrefix(in.nextString());
+                    break;
+                case "friendlyFire":
+                    clan.setFriendlyFire(in.nextBoolean());
+                    break;
+                case "home":
+                    clan.setHome(in.nextString());
+                    break;
+                case "allies":
+                    readStrings(in, clan.getAllies());
+                    break;
+                case "enemies":
+                    readStrings(in, clan.getEnemies());
+                    break;
+                case "points":
+                    clan.setPoints(in.nextDouble());
+                    break;
+                case "playerPoints":
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        UUID uuid = UUID.fromString(in.nextName());
+                        clan.getPlayerPoints().put(uuid, in.nextDouble());
+                    }
+                    in.endObject();
+                    break;
+                case "kills":
+                    readInts(in, clan.getKills());
+                    break;
+                case "deaths":
+                    readInts(in, clan.getDeaths());
+                    break;
+                case "joinAt":
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        UUID uuid = UUID.fromString(in.nextName());
+                        clan.getJoinAt().put(uuid, in.nextLong());
+                    }
+                    in.endObject();
+                    break;
+                case "lockedChests":
+                    readStrings(in, clan.getLockedChests());
+                    break;
+                case "motd":
+                    clan.setMotd(in.nextString());
+                    break;
+                case "activeWars":
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String key = in.nextName();
+                        Clan.War war = wars.read(in);
+                        if (war != null) {
+                            clan.getActiveWars().put(key, war);
+                        }
+                    }
+                    in.endObject();
+                    break;
+                case "achievements":
+                    readStrings(in, clan.getAchievements());
+                    break;
+                case "title":
+                    clan.setTitle(in.nextString());
+                    break;
+                case "warPoints":
+                    clan.setWarPoints(in.nextInt());
+                    break;
+                case "wins":
+                    clan.setWins(in.nextInt());
+                    break;
+                case "losses":
+                    clan.setLosses(in.nextInt());
+                    break;
+                case "lastActivity":
+                    clan.setLastActivity(in.nextLong());
+                    break;
+                case "dailyKills":
+                    readInts(in, clan.getDailyKills());
+                    break;
+                case "lastDailyReset":
+                    clan.setLastDailyReset(in.nextLong());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return clan;
+    }
+
+    private static void readStrings(JsonReader in, Set<String> target) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            target.add(in.nextString());
+        }
+        in.endArray();
+    }
+
+    private static void readInts(JsonReader in, Map<UUID, Integer> target) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            UUID uuid = UUID.fromString(in.nextName());
+            target.put(uuid, in.nextInt());
+        }
+        in.endObject();
+    }
+}
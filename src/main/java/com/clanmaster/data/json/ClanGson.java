@@ -0,0 +1,31 @@
+package com.clanmaster.data.json;
+
+import com.clanmaster.model.Clan;
+import com.clanmaster.model.ClanMember;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Builds the Gson instances used by the JSON-based backends, with the streaming clan adapters registered.
+ */
+public final class ClanGson {
+
+    private ClanGson() {
+    }
+
+    /**
+     * Creates a Gson instance for clan data.
+     *
+     * @param pretty whether output is indented for humans
+     */
+    public static Gson create(boolean pretty) {
+        GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapter(Clan.class, new ClanAdapter())
+                .registerTypeAdapter(ClanMember.class, new ClanMemberAdapter())
+                .registerTypeAdapter(Clan.War.class, new WarAdapter());
+        if (pretty) {
+            builder.setPrettyPrinting();
+        }
+        return builder.create();
+    }
+}
@@ -0,0 +1,61 @@
+package com.clanmaster.data.json;
+
+import com.clanmaster.model.Clan;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Human-readable interchange format: the classic {@code clans.json} map of clan name to clan. Used for imports and
+ * exports regardless of the active storage backend.
+ */
+public final class ClanJsonFormat {
+
+    private static final Gson GSON = ClanGson.create(true);
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Clan>>() { }.getType();
+
+    private ClanJsonFormat() {
+    }
+
+    /**
+     * Reads clans from a JSON document.
+     *
+     * @return clans keyed by their name
+     */
+    public static Map<String, Clan> read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Clan> data = GSON.fromJson(reader, MAP_TYPE);
+            Map<String, Clan> byName = new HashMap<>();
+            if (data != null) {
+                data.values().forEach(clan -> byName.put(clan.getName(), clan));
+            }
+            return byName;
+        }
+    }
+
+    /**
+     * Writes clans as a pretty-printed JSON document.
+     */
+    public static void write(Path file, Collection<Clan> clans) throws IOException {
+        Map<String, Clan> data = new LinkedHashMap<>();
+        clans.forEach(clan -> data.put(clan.getName(), clan));
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            GSON.toJson(data, MAP_TYPE, writer);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.clanmaster.data.json;
+
+import com.clanmaster.model.ClanMember;
+import com.clanmaster.model.ClanRank;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Streams {@link ClanMember} using the same field names reflection produced.
+ */
+public class ClanMemberAdapter extends TypeAdapter<ClanMember> {
+
+    @Override
+    public void write(JsonWriter out, ClanMember member) throws IOException {
+        if (member == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("uuid").value(member.getUuid().toString());
+        out.name("rank").value(member.getRank().name());
+        out.endObject();
+    }
+
+    @Override
+    public ClanMember read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        UUID uuid = null;
+        ClanRank rank = ClanRank.MEMBER;
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "uuid":
+                    uuid = UUID.fromString(in.nextString());
+                    break;
+                case "rank":
+                    rank = ClanRank.valueOf(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return uuid == null ? null : new ClanMember(uuid, rank);
+    }
+}
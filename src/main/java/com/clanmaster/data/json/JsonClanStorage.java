@@ -3,78 +3,282 @@ package com.clanmaster.data.json;
 import com.clanmaster.data.ClanStorage;
 import com.clanmaster.model.Clan;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.BufferedWriter;
 import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 /**
- * JSON file based storage using Gson.
+ * JSON storage using Gson with one compact file per clan. Only changed clans are rewritten, each through a temp file
+ * that is atomically renamed over the old shard, so a crash can never leave a half-written clan behind.
  */
 public class JsonClanStorage implements ClanStorage {
 
-    private final File file;
+    private static final String SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".json.tmp";
+    /** Created in the clan folder once every clan of {@code clans.json} has its own shard. */
+    private static final String MIGRATED_MARKER = ".migrated";
+
+    private final Path directory;
+    private final File legacyFile;
     private final Logger logger;
     private final Gson gson;
+    private final int loadThreads;
     private final Type mapType = new TypeToken<Map<String, Clan>>() { }.getType();
 
     /**
-     * Creates the storage pointing to a file.
+     * Creates the storage.
+     *
+     * @param directory   folder holding one shard per clan
+     * @param legacyFile  single-file {@code clans.json} migrated into shards on first load
+     * @param loadThreads maximum threads reading shards in parallel
+     * @param pretty      whether shards are indented for humans
      */
-    public JsonClanStorage(File file, Logger logger) {
-        this.file = file;
+    public JsonClanStorage(File directory, File legacyFile, int loadThreads, boolean pretty, Logger logger) {
+        this.directory = directory.toPath();
+        this.legacyFile = legacyFile;
         this.logger = logger;
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.loadThreads = Math.max(1, loadThreads);
+        this.gson = ClanGson.create(pretty);
     }
 
     @Override
     public Map<String, Clan> loadAll() {
-        if (!file.exists()) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            logger.warning("Failed to create clan folder: " + ex.getMessage());
             return Collections.emptyMap();
         }
-        try (FileReader reader = new FileReader(file)) {
-            Map<String, Clan> data = gson.fromJson(reader, mapType);
-            return data == null ? Collections.emptyMap() : data;
+        List<Path> shards = listShards();
+        Map<String, Clan> clans = readShards(shards);
+        // Until the marker exists a migration may have stopped part-way, so clans.json is consulted on every load
+        if (legacyFile.exists() && !Files.exists(directory.resolve(MIGRATED_MARKER))) {
+            migrateLegacy(clans);
+        }
+        return clans;
+    }
+
+    private Map<String, Clan> readShards(List<Path> shards) {
+        Map<String, Clan> clans = new HashMap<>();
+        if (shards.isEmpty()) {
+            return clans;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(loadThreads, Math.max(1, shards.size())), runnable -> {
+            Thread thread = new Thread(runnable, "ClanMaster-Loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Clan>> reads = new ArrayList<>(shards.size());
+            for (Path shard : shards) {
+                reads.add(pool.submit(() -> read(shard)));
+            }
+            for (int i = 0; i < reads.size(); i++) {
+                try {
+                    Clan clan = reads.get(i).get();
+                    if (clan != null) {
+                        clans.put(clan.getName(), clan);
+                    }
+                } catch (Exception ex) {
+                    logger.warning("Failed to load clan file " + shards.get(i).getFileName() + ": " + ex.getMessage());
+                }
+            }
+        } catch (Exception ex) {
+            logger.warning("Failed to load clans: " + ex.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+        return clans;
+    }
+
+    private List<Path> listShards() {
+        List<Path> shards = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                String file = path.getFileName().toString();
+                if (file.endsWith(TEMP_SUFFIX)) {
+                    // Leftover from a write interrupted before its rename; the previous shard is still intact
+                    Files.deleteIfExists(path);
+                } else if (file.endsWith(SUFFIX)) {
+                    shards.add(path);
+                }
+            }
+        } catch (IOException ex) {
+            logger.warning("Failed to list clan files: " + ex.getMessage());
+        }
+        return shards;
+    }
+
+    private Clan read(Path shard) throws IOException {
+        try (Reader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Clan.class);
+        }
+    }
+
+    /**
+     * Splits the old single {@code clans.json} into shards and keeps the original as a backup. Clans that already have
+     * a shard, written by an earlier interrupted migration or saved since, keep it; only the rest are taken from
+     * {@code clans.json}. The marker is written once every clan has a shard, so a failure is retried on the next load.
+     *
+     * @param clans clans read from shards, completed with the ones only {@code clans.json} has
+     */
+    private void migrateLegacy(Map<String, Clan> clans) {
+        Map<String, Clan> data;
+        try (Reader reader = Files.newBufferedReader(legacyFile.toPath(), StandardCharsets.UTF_8)) {
+            data = gson.fromJson(reader, mapType);
         } catch (Exception ex) {
             logger.warning("Failed to load clans.json: " + ex.getMessage());
-            return Collections.emptyMap();
+            return;
+        }
+        Set<String> sharded = new HashSet<>();
+        clans.keySet().forEach(name -> sharded.add(key(name)));
+        Map<String, Clan> missing = new HashMap<>();
+        if (data != null) {
+            data.values().stream()
+                    .filter(clan -> !sharded.contains(key(clan.getName())))
+                    .forEach(clan -> missing.put(clan.getName(), clan));
+        }
+        clans.putAll(missing);
+        if (!saveChanges(missing, Set.of())) {
+            logger.warning("Migration of clans.json is incomplete and will be resumed on the next start.");
+            return;
+        }
+        try {
+            Files.createFile(directory.resolve(MIGRATED_MARKER));
+        } catch (IOException ex) {
+            logger.warning("Failed to mark clans.json as migrated: " + ex.getMessage());
+            return;
+        }
+        File backup = new File(legacyFile.getParentFile(), legacyFile.getName() + ".migrated");
+        if (legacyFile.renameTo(backup)) {
+            logger.info("Migrated " + missing.size() + " clans from clans.json into " + directory.getFileName() + "/.");
         }
     }
 
     @Override
     public void saveAll(Map<String, Clan> clans) {
+        Map<String, Clan> byName = new HashMap<>();
+        clans.values().forEach(clan -> byName.put(key(clan.getName()), clan));
+        Set<String> stale = new HashSet<>();
+        for (Path shard : listShards()) {
+            String file = shard.getFileName().toString();
+            stale.add(file.substring(0, file.length() - SUFFIX.length()));
+        }
+        byName.keySet().forEach(name -> stale.remove(fileName(name)));
+        for (String file : stale) {
+            try {
+                Files.deleteIfExists(directory.resolve(file + SUFFIX));
+            } catch (IOException ex) {
+                logger.warning("Failed to delete clan file " + file + SUFFIX + ": " + ex.getMessage());
+            }
+        }
+        saveChanges(byName, Set.of());
+    }
+
+    @Override
+    public synchronized boolean saveChanges(Map<String, Clan> changed, Set<String> deleted) {
+        boolean ok = true;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            logger.warning("Failed to create clan folder: " + ex.getMessage());
+            return false;
+        }
+        for (String name : deleted) {
+            try {
+                Files.deleteIfExists(shard(name));
+            } catch (IOException ex) {
+                logger.warning("Failed to delete clan file for " + name + ": " + ex.getMessage());
+                ok = false;
+            }
+        }
+        for (Clan clan : changed.values()) {
+            if (!write(clan)) {
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    private boolean write(Clan clan) {
+        Path target = shard(clan.getName());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
         try {
-            file.getParentFile().mkdirs();
-            try (FileWriter writer = new FileWriter(file)) {
-                gson.toJson(clans, mapType, writer);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 1 << 14)) {
+                gson.toJson(clan, Clan.class, writer);
+                writer.flush();
+                channel.force(false);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
             }
+            return true;
         } catch (Exception ex) {
-            logger.warning("Failed to save clans.json: " + ex.getMessage());
+            logger.warning("Failed to save clan file for " + clan.getName() + ": " + ex.getMessage());
+            return false;
         }
     }
 
     @Override
     public void saveClan(Clan clan) {
-        // Save all to keep it simple and consistent.
+        saveChanges(Map.of(key(clan.getName()), clan), Set.of());
     }
 
     @Override
     public void deleteClan(String name) {
-        // handled by saveAll on next flush
+        saveChanges(Map.of(), Set.of(name));
     }
 
-    @Override
-    public Optional<Clan> findByPlayer(UUID playerId, Map<String, Clan> clans) {
-        return clans.values().stream()
-                .filter(clan -> clan.getMembers().containsKey(playerId))
-                .findFirst();
+    private Path shard(String name) {
+        return directory.resolve(fileName(key(name)) + SUFFIX);
+    }
+
+    /**
+     * Turns a lowercase clan name into a portable file name; characters outside {@code [a-z0-9_-]} are hex-escaped.
+     */
+    private static String fileName(String key) {
+        StringBuilder out = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_' || c == '-') {
+                out.append(c);
+            } else {
+                out.append('~').append(String.format("%04x", (int) c));
+            }
+        }
+        return out.toString();
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
     }
 }
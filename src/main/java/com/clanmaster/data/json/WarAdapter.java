@@ -0,0 +1,76 @@
+package com.clanmaster.data.json;
+
+import com.clanmaster.model.Clan;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streams {@link Clan.War} using the same field names reflection produced.
+ */
+public class WarAdapter extends TypeAdapter<Clan.War> {
+
+    @Override
+    public void write(JsonWriter out, Clan.War war) throws IOException {
+        if (war == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("enemyClan").value(war.getEnemyClan());
+        out.name("startTime").value(war.getStartTime());
+        out.name("killsClan1").value(war.getKillsClan1());
+        out.name("killsClan2").value(war.getKillsClan2());
+        out.name("active").value(war.isActive());
+        out.endObject();
+    }
+
+    @Override
+    public Clan.War read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String enemyClan = null;
+        long startTime = 0;
+        int killsClan1 = 0;
+        int killsClan2 = 0;
+        boolean active = true;
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "enemyClan":
+                    enemyClan = in.nextString();
+                    break;
+                case "startTime":
+                    startTime = in.nextLong();
+                    break;
+                case "killsClan1":
+                    killsClan1 = in.nextInt();
+                    break;
+                case "killsClan2":
+                    killsClan2 = in.nextInt();
+                    break;
+                case "active":
+                    active = in.nextBoolean();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        Clan.War war = new Clan.War(enemyClan, startTime);
+        war.setKillsClan1(killsClan1);
+        war.setKillsClan2(killsClan2);
+        war.setActive(active);
+        return war;
+    }
+}
@@ -4,7 +4,6 @@ import com.clanmaster.data.ClanStorage;
 import com.clanmaster.model.Clan;
 import com.clanmaster.model.ClanMember;
 import com.clanmaster.model.ClanRank;
-import com.google.gson.Gson;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -12,12 +11,22 @@ import org.bukkit.configuration.file.FileConfiguration;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 /**
@@ -25,9 +34,15 @@ import java.util.logging.Logger;
  */
 public class SqlClanStorage implements ClanStorage {
 
+    private static final int FETCH_SIZE = 1000;
+
     private final Logger logger;
     private final HikariDataSource dataSource;
-    private final Gson gson = new Gson();
+    private final boolean mysql;
+    /** Every table holding clan state; the first one is the clan row itself, the rest are loaded after it. */
+    private final List<Table> tables;
+    /** Rows as stored in the database per clan name and table, used to write only the rows that differ. */
+    private final Map<String, Map<String, Map<List<Object>, List<Object>>>> persisted = new ConcurrentHashMap<>();
 
     /**
      * Creates SQL storage using parameters from config.
@@ -36,10 +51,15 @@ public class SqlClanStorage implements ClanStorage {
         this.logger = logger;
         HikariConfig hikari = new HikariConfig();
         String type = config.getString("storage.type", "SQLITE").toUpperCase();
-        if ("MYSQL".equals(type)) {
+        this.mysql = "MYSQL".equals(type);
+        if (mysql) {
             hikari.setJdbcUrl(config.getString("storage.mysql.url"));
             hikari.setUsername(config.getString("storage.mysql.user"));
             hikari.setPassword(config.getString("storage.mysql.password"));
+            // Lets the driver send a batch of upserts as one multi-row statement
+            hikari.addDataSourceProperty("rewriteBatchedStatements", "true");
+            // Without a server cursor the driver ignores the fetch size and buffers whole tables
+            hikari.addDataSourceProperty("useCursorFetch", "true");
         } else {
             String path = config.getString("storage.sqlite.file", "clans.db");
             hikari.setJdbcUrl("jdbc:sqlite:" + path);
@@ -47,116 +67,398 @@ public class SqlClanStorage implements ClanStorage {
         hikari.setMaximumPoolSize(5);
         hikari.setPoolName("ClanMasterPool");
         this.dataSource = new HikariDataSource(hikari);
+        this.tables = List.of(
+                new Table("clans", "name", new String[0],
+                        new String[]{"level", "xp", "coins", "description", "prefix", "friendly_fire", "home", "points",
+                                "motd", "title", "war_points", "wins", "losses", "last_activity", "last_daily_reset"},
+                        SqlClanStorage::clanRow, SqlClanStorage::readClan),
+                new Table("clan_members", "clan_name", new String[]{"uuid"}, new String[]{"member_rank"},
+                        SqlClanStorage::memberRows, SqlClanStorage::readMember),
+                new Table("clan_player_stats", "clan_name", new String[]{"uuid"},
+                        new String[]{"kills", "deaths", "daily_kills", "points", "join_at"},
+                        SqlClanStorage::statRows, SqlClanStorage::readStats),
+                new Table("clan_relations", "clan_name", new String[]{"other_clan", "relation"}, new String[0],
+                        SqlClanStorage::relationRows, SqlClanStorage::readRelation),
+                new Table("clan_wars", "clan_name", new String[]{"war_key"},
+                        new String[]{"enemy_clan", "start_time", "kills_own", "kills_enemy", "active"},
+                        SqlClanStorage::warRows, SqlClanStorage::readWar),
+                new Table("clan_achievements", "clan_name", new String[]{"achievement"}, new String[0],
+                        clan -> keyRows(clan.getAchievements()), (clan, rs) -> clan.getAchievements().add(rs.getString("achievement"))),
+                new Table("clan_chests", "clan_name", new String[]{"location"}, new String[0],
+                        clan -> keyRows(clan.getLockedChests()), (clan, rs) -> clan.getLockedChests().add(rs.getString("location")))
+        );
         createTables();
     }
 
+    /**
+     * Builds an insert-or-update statement in the dialect of the configured backend.
+     */
+    private String upsert(String table, String[] keys, String... values) {
+        List<String> columns = new ArrayList<>(List.of(keys));
+        columns.addAll(List.of(values));
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append('(')
+                .append(String.join(", ", columns)).append(") VALUES(")
+                .append(String.join(",", Collections.nCopies(columns.size(), "?"))).append(')');
+        List<String> updates = new ArrayList<>();
+        if (mysql) {
+            for (String value : values) {
+                updates.add(value + "=VALUES(" + value + ")");
+            }
+            if (updates.isEmpty()) {
+                // Key-only rows: a no-op assignment keeps the existing row
+                updates.add(keys[0] + "=" + keys[0]);
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE ");
+        } else {
+            sql.append(" ON CONFLICT(").append(String.join(", ", keys)).append(')');
+            if (values.length == 0) {
+                return sql.append(" DO NOTHING").toString();
+            }
+            for (String value : values) {
+                updates.add(value + "=excluded." + value);
+            }
+            sql.append(" DO UPDATE SET ");
+        }
+        return sql.append(String.join(", ", updates)).toString();
+    }
+
     @Override
     public Map<String, Clan> loadAll() {
         Map<String, Clan> clans = new HashMap<>();
-        String sql = "SELECT name, level, xp, coins FROM clans";
-        try (Connection conn = dataSource.getConnection();
-             Statement st = conn.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
-            while (rs.next()) {
-                Clan clan = new Clan(rs.getString("name"));
-                clan.setLevel(rs.getInt("level"));
-                clan.setXp(rs.getDouble("xp"));
-                clan.setCoins(rs.getDouble("coins"));
-                clans.put(clan.getName(), clan);
+        try (Connection conn = dataSource.getConnection()) {
+            // Each table is streamed exactly once; child rows are attached to their clan by name
+            for (Table table : tables) {
+                try (Statement st = conn.createStatement()) {
+                    st.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = st.executeQuery(table.select)) {
+                        while (rs.next()) {
+                            String name = rs.getString(table.owner);
+                            Clan clan = clans.get(name);
+                            if (clan == null) {
+                                if (table != tables.get(0)) {
+                                    continue;
+                                }
+                                clan = new Clan(name);
+                                clans.put(name, clan);
+                            }
+                            table.reader.read(clan, rs);
+                        }
+                    }
+                }
             }
         } catch (Exception ex) {
             logger.warning("Failed to load clans: " + ex.getMessage());
             return Collections.emptyMap();
         }
-        loadMembers(clans);
+        persisted.clear();
+        clans.forEach((name, clan) -> persisted.put(name, snapshot(clan)));
         return clans;
     }
 
-    private void loadMembers(Map<String, Clan> clans) {
-        String sql = "SELECT clan_name, uuid, rank FROM clan_members";
-        try (Connection conn = dataSource.getConnection();
-             Statement st = conn.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
-            while (rs.next()) {
-                String clanName = rs.getString("clan_name");
-                Clan clan = clans.get(clanName);
-                if (clan == null) {
-                    continue;
-                }
-                UUID uuid = UUID.fromString(rs.getString("uuid"));
-                ClanRank rank = ClanRank.valueOf(rs.getString("rank"));
-                clan.getMembers().put(uuid, new ClanMember(uuid, rank));
-            }
-        } catch (Exception ex) {
-            logger.warning("Failed to load clan members: " + ex.getMessage());
-        }
+    @Override
+    public void saveAll(Map<String, Clan> clans) {
+        Map<String, Clan> byName = new HashMap<>();
+        clans.values().forEach(clan -> byName.put(clan.getName(), clan));
+        Set<String> removed = new HashSet<>(persisted.keySet());
+        removed.removeAll(byName.keySet());
+        saveChanges(byName, removed);
     }
 
     @Override
-    public void saveAll(Map<String, Clan> clans) {
+    public boolean saveChanges(Map<String, Clan> changed, Set<String> deleted) {
+        Map<String, Map<String, Map<List<Object>, List<Object>>>> written = new HashMap<>();
         try (Connection conn = dataSource.getConnection()) {
             conn.setAutoCommit(false);
-            try (Statement st = conn.createStatement()) {
-                st.executeUpdate("DELETE FROM clans");
-                st.executeUpdate("DELETE FROM clan_members");
-            }
-            try (PreparedStatement psClan = conn.prepareStatement("INSERT INTO clans(name, level, xp, coins) VALUES(?,?,?,?)");
-                 PreparedStatement psMember = conn.prepareStatement("INSERT INTO clan_members(clan_name, uuid, rank) VALUES(?,?,?)")) {
-                for (Clan clan : clans.values()) {
-                    psClan.setString(1, clan.getName());
-                    psClan.setInt(2, clan.getLevel());
-                    psClan.setDouble(3, clan.getXp());
-                    psClan.setDouble(4, clan.getCoins());
-                    psClan.addBatch();
-                    for (ClanMember member : clan.getMembers().values()) {
-                        psMember.setString(1, clan.getName());
-                        psMember.setString(2, member.getUuid().toString());
-                        psMember.setString(3, member.getRank().name());
-                        psMember.addBatch();
+            List<PreparedStatement> statements = new ArrayList<>();
+            try {
+                Map<Table, PreparedStatement> deleteAll = new LinkedHashMap<>();
+                Map<Table, PreparedStatement> deleteRow = new LinkedHashMap<>();
+                Map<Table, PreparedStatement> upserts = new LinkedHashMap<>();
+                for (Table table : tables) {
+                    deleteAll.put(table, prepare(conn, statements, table.deleteAll));
+                    deleteRow.put(table, prepare(conn, statements, table.deleteRow));
+                    upserts.put(table, prepare(conn, statements, table.upsert));
+                }
+                for (String name : deleted) {
+                    for (PreparedStatement ps : deleteAll.values()) {
+                        ps.setString(1, name);
+                        ps.addBatch();
                     }
                 }
-                psClan.executeBatch();
-                psMember.executeBatch();
+                for (Clan clan : changed.values()) {
+                    String name = clan.getName();
+                    Map<String, Map<List<Object>, List<Object>>> stored = deleted.contains(name)
+                            ? Map.of() : persisted.getOrDefault(name, Map.of());
+                    Map<String, Map<List<Object>, List<Object>>> current = snapshot(clan);
+                    for (Table table : tables) {
+                        Map<List<Object>, List<Object>> before = stored.getOrDefault(table.name, Map.of());
+                        Map<List<Object>, List<Object>> after = current.get(table.name);
+                        for (Map.Entry<List<Object>, List<Object>> row : after.entrySet()) {
+                            if (!Objects.equals(before.get(row.getKey()), row.getValue())) {
+                                PreparedStatement ps = upserts.get(table);
+                                int index = bind(ps, 1, List.of(name));
+                                index = bind(ps, index, row.getKey());
+                                bind(ps, index, row.getValue());
+                                ps.addBatch();
+                            }
+                        }
+                        for (List<Object> key : before.keySet()) {
+                            if (!after.containsKey(key)) {
+                                PreparedStatement ps = deleteRow.get(table);
+                                bind(ps, bind(ps, 1, List.of(name)), key);
+                                ps.addBatch();
+                            }
+                        }
+                    }
+                    written.put(name, current);
+                }
+                // Deletes run first so a clan re-created under a deleted name keeps its fresh rows
+                for (PreparedStatement ps : deleteAll.values()) {
+                    ps.executeBatch();
+                }
+                for (PreparedStatement ps : deleteRow.values()) {
+                    ps.executeBatch();
+                }
+                for (PreparedStatement ps : upserts.values()) {
+                    ps.executeBatch();
+                }
+            } finally {
+                for (PreparedStatement ps : statements) {
+                    ps.close();
+                }
             }
             conn.commit();
         } catch (Exception ex) {
-            logger.warning("Failed to save clans: " + ex.getMessage());
+            logger.warning("Failed to save clan changes: " + ex.getMessage());
+            return false;
+        }
+        deleted.forEach(persisted::remove);
+        persisted.putAll(written);
+        return true;
+    }
+
+    private static PreparedStatement prepare(Connection conn, List<PreparedStatement> opened, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql);
+        opened.add(ps);
+        return ps;
+    }
+
+    private static int bind(PreparedStatement ps, int index, List<Object> values) throws SQLException {
+        for (Object value : values) {
+            if (value == null) {
+                ps.setNull(index++, Types.NULL);
+            } else {
+                ps.setObject(index++, value);
+            }
         }
+        return index;
     }
 
     @Override
     public void saveClan(Clan clan) {
-        Map<String, Clan> map = new HashMap<>();
-        map.put(clan.getName(), clan);
-        saveAll(map);
+        saveChanges(Map.of(clan.getName(), clan), Set.of());
     }
 
     @Override
     public void deleteClan(String name) {
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement("DELETE FROM clans WHERE name=?")) {
-            ps.setString(1, name);
-            ps.executeUpdate();
-        } catch (Exception ex) {
-            logger.warning("Failed to delete clan: " + ex.getMessage());
-        }
+        saveChanges(Map.of(), Set.of(name));
     }
 
     @Override
-    public Optional<Clan> findByPlayer(UUID playerId, Map<String, Clan> clans) {
-        return clans.values().stream()
-                .filter(clan -> clan.getMembers().containsKey(playerId))
-                .findFirst();
+    public void close() {
+        dataSource.close();
     }
 
     private void createTables() {
-        String clansTable = "CREATE TABLE IF NOT EXISTS clans (name VARCHAR(32) PRIMARY KEY, level INT, xp DOUBLE, coins DOUBLE)";
-        String membersTable = "CREATE TABLE IF NOT EXISTS clan_members (clan_name VARCHAR(32), uuid VARCHAR(36), rank VARCHAR(16), PRIMARY KEY(clan_name, uuid))";
-        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
-            st.executeUpdate(clansTable);
-            st.executeUpdate(membersTable);
+        try (Connection conn = dataSource.getConnection()) {
+            SqlSchema.ensure(conn, logger);
         } catch (Exception ex) {
             logger.warning("Failed to create tables: " + ex.getMessage());
         }
     }
+
+    /**
+     * Returns every row the clan occupies, keyed by table name and then by row key.
+     */
+    private Map<String, Map<List<Object>, List<Object>>> snapshot(Clan clan) {
+        Map<String, Map<List<Object>, List<Object>>> rows = new HashMap<>();
+        for (Table table : tables) {
+            rows.put(table.name, table.rows.apply(clan));
+        }
+        return rows;
+    }
+
+    private static Map<List<Object>, List<Object>> clanRow(Clan clan) {
+        return Map.of(List.of(), Arrays.asList(clan.getLevel(), clan.getXp(), clan.getCoins(), clan.getDescription(),
+                clan.getPrefix(), clan.isFriendlyFire(), clan.getHome(), clan.getPoints(), clan.getMotd(), clan.getTitle(),
+                clan.getWarPoints(), clan.getWins(), clan.getLosses(), clan.getLastActivity(), clan.getLastDailyReset()));
+    }
+
+    private static Map<List<Object>, List<Object>> memberRows(Clan clan) {
+        Map<List<Object>, List<Object>> rows = new HashMap<>();
+        for (ClanMember member : clan.getMembers().values()) {
+            rows.put(List.of(member.getUuid().toString()), List.of(member.getRank().name()));
+        }
+        return rows;
+    }
+
+    private static Map<List<Object>, List<Object>> statRows(Clan clan) {
+        Set<UUID> players = new HashSet<>(clan.getKills().keySet());
+        players.addAll(clan.getDeaths().keySet());
+        players.addAll(clan.getDailyKills().keySet());
+        players.addAll(clan.getPlayerPoints().keySet());
+        players.addAll(clan.getJoinAt().keySet());
+        Map<List<Object>, List<Object>> rows = new HashMap<>();
+        for (UUID uuid : players) {
+            rows.put(List.of(uuid.toString()), Arrays.asList(clan.getKills().get(uuid), clan.getDeaths().get(uuid),
+                    clan.getDailyKills().get(uuid), clan.getPlayerPoints().get(uuid), clan.getJoinAt().get(uuid)));
+        }
+        return rows;
+    }
+
+    private static Map<List<Object>, List<Object>> relationRows(Clan clan) {
+        Map<List<Object>, List<Object>> rows = new HashMap<>();
+        clan.getAllies().forEach(other -> rows.put(List.of(other, "ALLY"), List.of()));
+        clan.getEnemies().forEach(other -> rows.put(List.of(other, "ENEMY"), List.of()));
+        return rows;
+    }
+
+    private static Map<List<Object>, List<Object>> warRows(Clan clan) {
+        Map<List<Object>, List<Object>> rows = new HashMap<>();
+        clan.getActiveWars().forEach((key, war) -> rows.put(List.of(key), List.of(war.getEnemyClan(), war.getStartTime(),
+                war.getKillsClan1(), war.getKillsClan2(), war.isActive())));
+        return rows;
+    }
+
+    private static Map<List<Object>, List<Object>> keyRows(Set<String> values) {
+        Map<List<Object>, List<Object>> rows = new HashMap<>();
+        values.forEach(value -> rows.put(List.of(value), List.of()));
+        return rows;
+    }
+
+    private static void readClan(Clan clan, ResultSet rs) throws SQLException {
+        clan.setLevel(rs.getInt("level"));
+        clan.setXp(rs.getDouble("xp"));
+        clan.setCoins(rs.getDouble("coins"));
+        // Columns added by migrations are null on rows written before them, so keep the model defaults there
+        String description = rs.getString("description");
+        if (description != null) {
+            clan.setDescription(description);
+        }
+        String prefix = rs.getString("prefix");
+        if (prefix != null) {
+            clan.setPrefix(prefix);
+        }
+        clan.setFriendlyFire(rs.getBoolean("friendly_fire"));
+        String home = rs.getString("home");
+        if (home != null) {
+            clan.setHome(home);
+        }
+        clan.setPoints(rs.getDouble("points"));
+        String motd = rs.getString("motd");
+        if (motd != null) {
+            clan.setMotd(motd);
+        }
+        String title = rs.getString("title");
+        if (title != null) {
+            clan.setTitle(title);
+        }
+        clan.setWarPoints(rs.getInt("war_points"));
+        clan.setWins(rs.getInt("wins"));
+        clan.setLosses(rs.getInt("losses"));
+        long lastActivity = rs.getLong("last_activity");
+        if (!rs.wasNull()) {
+            clan.setLastActivity(lastActivity);
+        }
+        long lastDailyReset = rs.getLong("last_daily_reset");
+        if (!rs.wasNull()) {
+            clan.setLastDailyReset(lastDailyReset);
+        }
+    }
+
+    private static void readMember(Clan clan, ResultSet rs) throws SQLException {
+        UUID uuid = UUID.fromString(rs.getString("uuid"));
+        clan.getMembers().put(uuid, new ClanMember(uuid, ClanRank.valueOf(rs.getString("member_rank"))));
+    }
+
+    private static void readStats(Clan clan, ResultSet rs) throws SQLException {
+        UUID uuid = UUID.fromString(rs.getString("uuid"));
+        int kills = rs.getInt("kills");
+        if (!rs.wasNull()) {
+            clan.getKills().put(uuid, kills);
+        }
+        int deaths = rs.getInt("deaths");
+        if (!rs.wasNull()) {
+            clan.getDeaths().put(uuid, deaths);
+        }
+        int dailyKills = rs.getInt("daily_kills");
+        if (!rs.wasNull()) {
+            clan.getDailyKills().put(uuid, dailyKills);
+        }
+        double points = rs.getDouble("points");
+        if (!rs.wasNull()) {
+            clan.getPlayerPoints().put(uuid, points);
+        }
+        long joinAt = rs.getLong("join_at");
+        if (!rs.wasNull()) {
+            clan.getJoinAt().put(uuid, joinAt);
+        }
+    }
+
+    private static void readRelation(Clan clan, ResultSet rs) throws SQLException {
+        String other = rs.getString("other_clan");
+        if ("ALLY".equals(rs.getString("relation"))) {
+            clan.getAllies().add(other);
+        } else {
+            clan.getEnemies().add(other);
+        }
+    }
+
+    private static void readWar(Clan clan, ResultSet rs) throws SQLException {
+        Clan.War war = new Clan.War(rs.getString("enemy_clan"), rs.getLong("start_time"));
+        war.setKillsClan1(rs.getInt("kills_own"));
+        war.setKillsClan2(rs.getInt("kills_enemy"));
+        war.setActive(rs.getBoolean("active"));
+        clan.getActiveWars().put(rs.getString("war_key"), war);
+    }
+
+    /**
+     * Reads one result row into the clan it belongs to.
+     */
+    @FunctionalInterface
+    private interface RowReader {
+        void read(Clan clan, ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * A table whose rows belong to one clan each. Rows are identified by the owner column plus the key columns and
+     * compared by their value columns when diffing against what was last persisted.
+     */
+    private final class Table {
+        private final String name;
+        private final String owner;
+        private final Function<Clan, Map<List<Object>, List<Object>>> rows;
+        private final RowReader reader;
+        private final String select;
+        private final String upsert;
+        private final String deleteRow;
+        private final String deleteAll;
+
+        private Table(String name, String owner, String[] keys, String[] values,
+                      Function<Clan, Map<List<Object>, List<Object>>> rows, RowReader reader) {
+            this.name = name;
+            this.owner = owner;
+            this.rows = rows;
+            this.reader = reader;
+            List<String> columns = new ArrayList<>();
+            columns.add(owner);
+            columns.addAll(List.of(keys));
+            String[] identity = columns.toArray(new String[0]);
+            columns.addAll(List.of(values));
+            this.select = "SELECT " + String.join(", ", columns) + " FROM " + name;
+            this.upsert = upsert(name, identity, values);
+            this.deleteRow = "DELETE FROM " + name + " WHERE " + String.join("=? AND ", identity) + "=?";
+            this.deleteAll = "DELETE FROM " + name + " WHERE " + owner + "=?";
+        }
+    }
 }
@@ -0,0 +1,210 @@
+package com.clanmaster.data.sql;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Creates and migrates the clan tables. The applied version lives in {@code clanmaster_schema}. Each migration step
+ * runs on its own and is skipped when the database already shows its effect, checked through {@link DatabaseMetaData}.
+ * MySQL commits every DDL statement immediately, so an upgrade interrupted part-way cannot be rolled back; instead the
+ * next start runs the same migration again, skips the steps that completed and carries on with the rest.
+ */
+final class SqlSchema {
+
+    /** Version reached by applying every entry of {@link #MIGRATIONS}. */
+    static final int VERSION = 1;
+
+    /**
+     * Entry {@code i} upgrades version {@code i} to {@code i + 1}. Version 0 is the original two-table layout or an
+     * empty database; the first migration brings either to the current layout.
+     */
+    private static final List<List<Step>> MIGRATIONS = List.of(
+            List.of(
+                    new Step("CREATE TABLE clans (name VARCHAR(64) PRIMARY KEY, level INT, xp DOUBLE, coins DOUBLE,"
+                            + " description TEXT, prefix VARCHAR(64), friendly_fire BOOLEAN, home VARCHAR(255), points DOUBLE,"
+                            + " motd TEXT, title VARCHAR(64), war_points INT, wins INT, losses INT,"
+                            + " last_activity BIGINT, last_daily_reset BIGINT)", missingTable("clans")),
+                    addColumn("description", "TEXT"),
+                    addColumn("prefix", "VARCHAR(64)"),
+                    addColumn("friendly_fire", "BOOLEAN"),
+                    addColumn("home", "VARCHAR(255)"),
+                    addColumn("points", "DOUBLE"),
+                    addColumn("motd", "TEXT"),
+                    addColumn("title", "VARCHAR(64)"),
+                    addColumn("war_points", "INT"),
+                    addColumn("wins", "INT"),
+                    addColumn("losses", "INT"),
+                    addColumn("last_activity", "BIGINT"),
+                    addColumn("last_daily_reset", "BIGINT"),
+                    // RANK is reserved on MySQL 8, so the member table is rebuilt with a safe column name. The copy is
+                    // emptied first, so a copy interrupted before the old table was dropped is simply redone.
+                    new Step("CREATE TABLE clan_members_v1 (clan_name VARCHAR(64), uuid VARCHAR(36), member_rank VARCHAR(16),"
+                            + " PRIMARY KEY(clan_name, uuid))",
+                            meta -> !hasTable(meta, "clan_members_v1") && !hasColumn(meta, "clan_members", "member_rank")),
+                    new Step("DELETE FROM clan_members_v1", SqlSchema::copyingMembers),
+                    new Step("INSERT INTO clan_members_v1 (clan_name, uuid, member_rank) SELECT clan_name, uuid, `rank` FROM clan_members",
+                            SqlSchema::copyingMembers),
+                    new Step("DROP TABLE clan_members",
+                            meta -> hasTable(meta, "clan_members_v1") && hasTable(meta, "clan_members")),
+                    new Step("ALTER TABLE clan_members_v1 RENAME TO clan_members",
+                            meta -> hasTable(meta, "clan_members_v1") && !hasTable(meta, "clan_members")),
+                    new Step("CREATE INDEX idx_clan_members_uuid ON clan_members(uuid)",
+                            missingIndex("clan_members", "idx_clan_members_uuid")),
+                    new Step("CREATE TABLE clan_player_stats (clan_name VARCHAR(64), uuid VARCHAR(36), kills INT, deaths INT,"
+                            + " daily_kills INT, points DOUBLE, join_at BIGINT, PRIMARY KEY(clan_name, uuid))",
+                            missingTable("clan_player_stats")),
+                    new Step("CREATE TABLE clan_relations (clan_name VARCHAR(64), other_clan VARCHAR(64), relation VARCHAR(8),"
+                            + " PRIMARY KEY(clan_name, other_clan, relation))", missingTable("clan_relations")),
+                    new Step("CREATE INDEX idx_clan_relations_other ON clan_relations(other_clan)",
+                            missingIndex("clan_relations", "idx_clan_relations_other")),
+                    new Step("CREATE TABLE clan_wars (clan_name VARCHAR(64), war_key VARCHAR(64), enemy_clan VARCHAR(64),"
+                            + " start_time BIGINT, kills_own INT, kills_enemy INT, active BOOLEAN, PRIMARY KEY(clan_name, war_key))",
+                            missingTable("clan_wars")),
+                    new Step("CREATE INDEX idx_clan_wars_enemy ON clan_wars(enemy_clan)",
+                            missingIndex("clan_wars", "idx_clan_wars_enemy")),
+                    new Step("CREATE TABLE clan_achievements (clan_name VARCHAR(64), achievement VARCHAR(64),"
+                            + " PRIMARY KEY(clan_name, achievement))", missingTable("clan_achievements")),
+                    new Step("CREATE TABLE clan_chests (clan_name VARCHAR(64), location VARCHAR(128), PRIMARY KEY(clan_name, location))",
+                            missingTable("clan_chests"))
+            )
+    );
+
+    /**
+     * One schema change and the check telling whether it still has to run.
+     */
+    private record Step(String sql, Check needed) {
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean test(DatabaseMetaData meta) throws SQLException;
+    }
+
+    private SqlSchema() {
+    }
+
+    /**
+     * Brings the database to {@link #VERSION}, creating the tables on a fresh database.
+     */
+    static void ensure(Connection conn, Logger logger) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS clanmaster_schema (id INT PRIMARY KEY, version INT NOT NULL)");
+        }
+        int version = readVersion(conn);
+        if (version < 0) {
+            // Fresh and unversioned databases both start at 0; the steps create or add whatever is missing
+            version = 0;
+            writeVersion(conn, 0, true);
+        }
+        for (int i = version; i < MIGRATIONS.size(); i++) {
+            logger.info("Migrating clan tables to schema version " + (i + 1) + ".");
+            apply(conn, MIGRATIONS.get(i));
+            // Bumped only after every step succeeded; a failure before this point reruns the migration next start
+            writeVersion(conn, i + 1, false);
+        }
+    }
+
+    private static int readVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version FROM clanmaster_schema WHERE id=1")) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    private static void writeVersion(Connection conn, int version, boolean insert) throws SQLException {
+        String sql = insert
+                ? "INSERT INTO clanmaster_schema (version, id) VALUES(?, 1)"
+                : "UPDATE clanmaster_schema SET version=? WHERE id=1";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, version);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void apply(Connection conn, List<Step> steps) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (Statement st = conn.createStatement()) {
+            for (Step step : steps) {
+                if (step.needed().test(meta)) {
+                    st.executeUpdate(step.sql());
+                }
+            }
+        }
+    }
+
+    private static Step addColumn(String column, String type) {
+        return new Step("ALTER TABLE clans ADD COLUMN " + column + " " + type,
+                meta -> hasTable(meta, "clans") && !hasColumn(meta, "clans", column));
+    }
+
+    private static Check missingTable(String table) {
+        return meta -> !hasTable(meta, table);
+    }
+
+    private static Check missingIndex(String table, String index) {
+        return meta -> hasTable(meta, table) && !hasIndex(meta, table, index);
+    }
+
+    /**
+     * Whether the old member table still has to be copied into its replacement.
+     */
+    private static boolean copyingMembers(DatabaseMetaData meta) throws SQLException {
+        return hasTable(meta, "clan_members_v1") && hasColumn(meta, "clan_members", "rank");
+    }
+
+    private static boolean hasTable(DatabaseMetaData meta, String table) throws SQLException {
+        return findTable(meta, table) != null;
+    }
+
+    private static boolean hasColumn(DatabaseMetaData meta, String table, String column) throws SQLException {
+        String actual = findTable(meta, table);
+        if (actual == null) {
+            return false;
+        }
+        try (ResultSet rs = meta.getColumns(meta.getConnection().getCatalog(), null, actual, "%")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasIndex(DatabaseMetaData meta, String table, String index) throws SQLException {
+        String actual = findTable(meta, table);
+        if (actual == null) {
+            return false;
+        }
+        try (ResultSet rs = meta.getIndexInfo(meta.getConnection().getCatalog(), null, actual, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the table's name as the database stores it, or null if it does not exist. Matched without regard to
+     * case, since drivers differ in how they fold unquoted names.
+     */
+    private static String findTable(DatabaseMetaData meta, String table) throws SQLException {
+        try (ResultSet rs = meta.getTables(meta.getConnection().getCatalog(), null, "%", new String[]{"TABLE"})) {
+            while (rs.next()) {
+                String name = rs.getString("TABLE_NAME");
+                if (table.equalsIgnoreCase(name)) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,10 +1,14 @@
 package com.clanmaster.gui;
 
+import com.clanmaster.gui.ClanMenuHolder.Type;
 import com.clanmaster.model.Clan;
 import com.clanmaster.model.ClanMember;
 import com.clanmaster.model.ClanRank;
 import com.clanmaster.service.BonusService;
+import com.clanmaster.service.ClanMetric;
 import com.clanmaster.service.ClanService;
+import com.clanmaster.service.ProfileCache;
+import com.clanmaster.service.StatWindow;
 import com.clanmaster.util.ItemBuilder;
 import com.clanmaster.util.MessageResolver;
 import com.clanmaster.util.Text;
@@ -12,19 +16,27 @@ import com.clanmaster.util.FeatureManager;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Provides GUI views for clan interactions.
@@ -35,8 +47,31 @@ public class ClanMenu implements Listener {
     private final BonusService bonusService;
     private final MessageResolver messages;
     private final FeatureManager featureManager;
-
-    public ClanMenu(Object plugin, ClanService clanService, BonusService bonusService, MessageResolver messages, FeatureManager featureManager) {
+    private static final TopView DEFAULT_TOP_VIEW = new TopView(null, StatWindow.ALL);
+    private static final int MENU_SIZE = 54;
+    private static final int BACK_SLOT = 48;
+    private static final int PREV_SLOT = 45;
+    private static final int NEXT_SLOT = 53;
+    private static final int[] BORDER = {0,1,2,3,4,5,6,7,8,9,17,18,26,27,35,36,44,45,46,47,48,49,50,51,52,53};
+
+    /** Bordered empty menus per pane color; setContents copies the stacks, so one frame serves every open. */
+    private final Map<Material, ItemStack[]> frames = new ConcurrentHashMap<>();
+    /** Back and page buttons per language, built on first use and dropped on reload. */
+    private final Map<String, ItemStack> buttons = new ConcurrentHashMap<>();
+    /** Pages shown with a time-based value, such as activity or a rolling ranking, are rebuilt after this long. */
+    private static final long TIMED_PAGE_TTL = 60_000L;
+    private final MenuPageCache pages;
+
+    /** Ranking each player last picked in the top clans menu; a null metric means the level ranking. */
+    private final Map<UUID, TopView> topViews = new ConcurrentHashMap<>();
+
+    private final Plugin plugin;
+    /** Clans changed since open menus were last refreshed; filled from any thread, drained on the main thread. */
+    private final Set<Clan> changedClans = ConcurrentHashMap.newKeySet();
+
+    public ClanMenu(Plugin plugin, ClanService clanService, BonusService bonusService, MessageResolver messages, FeatureManager featureManager) {
+        this.plugin = plugin;
+        this.pages = new MenuPageCache(plugin);
         this.clanService = clanService;
         this.bonusService = bonusService;
         this.messages = messages;
@@ -59,14 +94,9 @@ public class ClanMenu implements Listener {
      * Opens menu for players without a clan.
      */
     private void openNoClanMenu(Player player) {
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color("&6&l✦ &fClan Browser"));
-        
-        // Decorate borders
-        ItemStack pane = new ItemBuilder(Material.GRAY_STAINED_GLASS_PANE).name(" ").build();
-        int[] border = {0,1,2,3,4,5,6,7,8,9,17,18,26,27,35,36,44,45,46,47,48,49,50,51,52,53};
-        for (int slot : border) {
-            inv.setItem(slot, pane);
-        }
+        ClanMenuHolder holder = new ClanMenuHolder(Type.BROWSER, 0, null, MENU_SIZE, Text.color("&6&l✦ &fClan Browser"));
+        Inventory inv = holder.getInventory();
+        decorate(inv, Material.GRAY_STAINED_GLASS_PANE);
 
         // Title/Info item
         inv.setItem(13, new ItemBuilder(Material.NETHER_STAR)
@@ -124,6 +154,10 @@ public class ClanMenu implements Listener {
                 ))
                 .build());
 
+        holder.on(22, this::openTopClansMenu);
+        holder.on(31, this::openAllClansMenu);
+        holder.on(40, this::showPlayerStats);
+        holder.on(48, this::showClanHelp);
         player.openInventory(inv);
     }
 
@@ -131,55 +165,68 @@ public class ClanMenu implements Listener {
      * Opens menu for players with a clan.
      */
     private void openWithClanMenu(Player player, Clan clan) {
-        String title = featureManager.getMenuTextColored("main-title", "&#ff4faf&l✦ &fClan Menu");
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color(title));
+        String title = featureManager.getMenuTextColored(player, "main-title", "&#ff4faf&l✦ &fClan Menu");
+        ClanMenuHolder holder = new ClanMenuHolder(Type.MAIN, 0, clan, MENU_SIZE, title);
+        paintMain(player, holder, holder.getInventory());
+        live(holder, this::paintMain);
+        player.openInventory(holder.getInventory());
+    }
+
+    private void paintMain(Player player, ClanMenuHolder holder, Inventory inv) {
+        Clan clan = holder.getClan();
         decorate(inv, Material.CYAN_STAINED_GLASS_PANE);
 
-        inv.setItem(4, titleItem(clan));
-        inv.setItem(20, statsItem(clan));
+        inv.setItem(4, titleItem(player, clan));
+        inv.setItem(20, statsItem(player, clan));
+        holder.on(20, this::openStats);
         
         // Bonuses item (if enabled)
         if (featureManager.isBonusesEnabled()) {
-            inv.setItem(22, bonusesItem(clan));
+            inv.setItem(22, bonusesItem(player, clan));
+            holder.on(22, this::openBonuses);
         }
         
-        inv.setItem(24, managementItem());
-        inv.setItem(30, settingsItem());
-        inv.setItem(32, membersItem(clan));
-        inv.setItem(40, infoItem(clan));
+        inv.setItem(24, managementItem(player));
+        holder.on(24, viewer -> openManage(viewer, 0));
+        inv.setItem(30, settingsItem(player));
+        holder.on(30, this::openSettings);
+        inv.setItem(32, membersItem(player, clan));
+        holder.on(32, viewer -> openManage(viewer, 0));
+        inv.setItem(40, infoItem(player, clan));
+        holder.on(40, this::showDetailedInfo);
         
         // Wars item (if enabled)
         if (featureManager.isClanWarsEnabled()) {
-            inv.setItem(10, warsItem(clan));
+            inv.setItem(10, warsItem(player, clan));
+            holder.on(10, this::openWarsMenu);
         }
         
         // Achievements item (if enabled)
         if (featureManager.isAchievementsEnabled()) {
-            inv.setItem(16, achievementsItem(clan));
+            inv.setItem(16, achievementsItem(player, clan));
+            holder.on(16, this::openAchievementsMenu);
         }
-
-        player.openInventory(inv);
     }
 
-    private ItemStack titleItem(Clan clan) {
+    private ItemStack titleItem(Player player, Clan clan) {
         String gradientName = Text.gradient("ff4faf", "5fd9ff", clan.getName());
         return new ItemBuilder(Material.NETHER_STAR)
                 .name("&l" + gradientName)
                 .lore(Arrays.asList(
-                        "&7♥ &f" + messages.get("menu.level") + ": &d" + clan.getLevel(),
+                        "&7♥ &f" + messages.get(player, "menu.level") + ": &d" + clan.getLevel(),
                         "&7✦ &fXP: &b" + clan.getXp(),
-                        "&7✸ &f" + messages.get("menu.members") + ": &a" + clan.getMembers().size(),
+                        "&7✸ &f" + messages.get(player, "menu.members") + ": &a" + clan.getMembers().size(),
                         "",
-                        "&7Leader: &e" + getLeaderName(clan),
+                        "&7Leader: &e" + clanService.getLeaderName(clan),
                         "&7Title: &6" + (clan.getTitle().isEmpty() ? "None" : clan.getTitle())
                 ))
                 .build();
     }
 
-    private ItemStack statsItem(Clan clan) {
-        String name = featureManager.getMenuTextColored("stats", "&#5fd9ffStatistics");
-        String levelText = featureManager.getMenuTextColored("level", "Level");
-        String membersText = featureManager.getMenuTextColored("members-count", "Members");
+    private ItemStack statsItem(Player player, Clan clan) {
+        String name = featureManager.getMenuTextColored(player, "stats", "&#5fd9ffStatistics");
+        String levelText = featureManager.getMenuTextColored(player, "level", "Level");
+        String membersText = featureManager.getMenuTextColored(player, "members-count", "Members");
         
         return new ItemBuilder(Material.BOOK)
                 .name(Text.color(name))
@@ -196,10 +243,10 @@ public class ClanMenu implements Listener {
                 .build();
     }
 
-    private ItemStack bonusesItem(Clan clan) {
-        String name = featureManager.getMenuTextColored("bonuses", "&#6cffc9Bonuses");
-        String levelText = featureManager.getMenuTextColored("level", "Level");
-        String privilegeText = featureManager.getMenuTextColored("privilege", "Privilege");
+    private ItemStack bonusesItem(Player player, Clan clan) {
+        String name = featureManager.getMenuTextColored(player, "bonuses", "&#6cffc9Bonuses");
+        String levelText = featureManager.getMenuTextColored(player, "level", "Level");
+        String privilegeText = featureManager.getMenuTextColored(player, "privilege", "Privilege");
         
         BonusService.Bonus bonus = bonusService.getBonus(clan.getLevel());
         return new ItemBuilder(Material.EMERALD)
@@ -217,9 +264,9 @@ public class ClanMenu implements Listener {
                 .build();
     }
 
-    private ItemStack managementItem() {
-        String name = featureManager.getMenuTextColored("manage", "&#f3b4ffManagement");
-        String desc = featureManager.getMenuTextColored("manage-desc", "&7Manage members");
+    private ItemStack managementItem(Player player) {
+        String name = featureManager.getMenuTextColored(player, "manage", "&#f3b4ffManagement");
+        String desc = featureManager.getMenuTextColored(player, "manage-desc", "&7Manage members");
         
         return new ItemBuilder(Material.ANVIL)
                 .name(Text.color(name))
@@ -236,10 +283,10 @@ public class ClanMenu implements Listener {
                 .build();
     }
 
-    private ItemStack membersItem(Clan clan) {
-        String name = featureManager.getMenuTextColored("members", "&#9b8cffMembers");
-        String desc = featureManager.getMenuTextColored("members-desc", "&7Manage/view members");
-        String clickText = featureManager.getMenuTextColored("click-demote", "&7Click to change rank");
+    private ItemStack membersItem(Player player, Clan clan) {
+        String name = featureManager.getMenuTextColored(player, "members", "&#9b8cffMembers");
+        String desc = featureManager.getMenuTextColored(player, "members-desc", "&7Manage/view members");
+        String clickText = featureManager.getMenuTextColored(player, "click-demote", "&7Click to change rank");
         
         return new ItemBuilder(Material.PLAYER_HEAD)
                 .name(Text.color(name))
@@ -254,9 +301,9 @@ public class ClanMenu implements Listener {
                 .build();
     }
 
-    private ItemStack settingsItem() {
-        String name = featureManager.getMenuTextColored("settings", "&#ffd166Settings");
-        String desc = featureManager.getMenuTextColored("settings-desc", "&7Clan preferences");
+    private ItemStack settingsItem(Player player) {
+        String name = featureManager.getMenuTextColored(player, "settings", "&#ffd166Settings");
+        String desc = featureManager.getMenuTextColored(player, "settings-desc", "&7Clan preferences");
         
         return new ItemBuilder(Material.COMPARATOR)
                 .name(Text.color(name))
@@ -272,8 +319,8 @@ public class ClanMenu implements Listener {
                 .build();
     }
 
-    private ItemStack infoItem(Clan clan) {
-        String name = featureManager.getMenuTextColored("info", "&#5fd9ffInfo");
+    private ItemStack infoItem(Player player, Clan clan) {
+        String name = featureManager.getMenuTextColored(player, "info", "&#5fd9ffInfo");
         
         return new ItemBuilder(Material.PAPER)
                 .name(Text.color(name))
@@ -291,9 +338,9 @@ public class ClanMenu implements Listener {
                 .build();
     }
 
-    private ItemStack warsItem(Clan clan) {
-        String name = featureManager.getMenuTextColored("wars", "&c&lWars");
-        String desc = featureManager.getMenuTextColored("wars-desc", "&7Manage clan wars");
+    private ItemStack warsItem(Player player, Clan clan) {
+        String name = featureManager.getMenuTextColored(player, "wars", "&c&lWars");
+        String desc = featureManager.getMenuTextColored(player, "wars-desc", "&7Manage clan wars");
         
         int activeWars = clan.getActiveWars().size();
         return new ItemBuilder(activeWars > 0 ? Material.REDSTONE_BLOCK : Material.IRON_SWORD)
@@ -310,9 +357,9 @@ public class ClanMenu implements Listener {
                 .build();
     }
 
-    private ItemStack achievementsItem(Clan clan) {
-        String name = featureManager.getMenuTextColored("achievements", "&#5fd9ffAchievements");
-        String desc = featureManager.getMenuTextColored("achievements-desc", "&7Clan rewards");
+    private ItemStack achievementsItem(Player player, Clan clan) {
+        String name = featureManager.getMenuTextColored(player, "achievements", "&#5fd9ffAchievements");
+        String desc = featureManager.getMenuTextColored(player, "achievements-desc", "&7Clan rewards");
         
         int achievements = clan.getAchievements().size();
         return new ItemBuilder(Material.BEACON)
@@ -328,242 +375,169 @@ public class ClanMenu implements Listener {
     }
 
     private void decorate(Inventory inv, Material material) {
-        ItemStack pane = new ItemBuilder(material).name(ChatColor.RESET.toString()).build();
-        int[] border = {0,1,2,3,4,5,6,7,8,9,17,18,26,27,35,36,44,45,46,47,48,49,50,51,52,53};
-        for (int slot : border) {
-            inv.setItem(slot, pane);
-        }
+        inv.setContents(frames.computeIfAbsent(material, key -> {
+            ItemStack pane = new ItemBuilder(key).name(ChatColor.RESET.toString()).build();
+            ItemStack[] frame = new ItemStack[MENU_SIZE];
+            for (int slot : BORDER) {
+                frame[slot] = pane;
+            }
+            return frame;
+        }));
     }
 
-    @EventHandler
-    public void onClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player player)) return;
-        
-        String title = event.getView().getTitle();
-        String strippedTitle = ChatColor.stripColor(title);
-        
-        // Clan Browser (no clan menu)
-        if (strippedTitle.contains("Clan Browser")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            int slot = event.getSlot();
-
-            if (slot == 22) {
-                openTopClansMenu(player);
-            } else if (slot == 31) {
-                openAllClansMenu(player);
-            } else if (slot == 40) {
-                showPlayerStats(player);
-            } else if (slot == 48) {
-                showClanHelp(player);
-            }
+    /**
+     * Starts refreshing open menus when their clan changes, at most once per {@code menu-refresh-ticks}.
+     */
+    public void start() {
+        long period = plugin.getConfig().getLong("menu-refresh-ticks", 10L);
+        if (period <= 0) {
             return;
         }
+        clanService.addChangeListener(changedClans::add);
+        Bukkit.getScheduler().runTaskTimer(plugin, this::refreshOpenMenus, period, period);
+    }
 
-        // Main clan menu
-        if (strippedTitle.contains("Clan Menu")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            int slot = event.getSlot();
-
-            if (slot == 24 || slot == 32) {
-                openManage(player, 0);
-            } else if (slot == 20) {
-                openStats(player);
-            } else if (slot == 22 && featureManager.isBonusesEnabled()) {
-                openBonuses(player);
-            } else if (slot == 30) {
-                openSettings(player);
-            } else if (slot == 40) {
-                showDetailedInfo(player);
-            } else if (slot == 10 && featureManager.isClanWarsEnabled()) {
-                openWarsMenu(player);
-            } else if (slot == 16 && featureManager.isAchievementsEnabled()) {
-                openAchievementsMenu(player);
+    /**
+     * Repaints the live menus members of changed clans have open. Changes since the last run are coalesced, so a
+     * burst of kills or deposits costs one repaint per viewer.
+     */
+    private void refreshOpenMenus() {
+        if (changedClans.isEmpty()) return;
+        List<Clan> changed = new ArrayList<>(changedClans);
+        changedClans.removeAll(changed);
+        for (Clan clan : changed) {
+            for (Player viewer : new ArrayList<>(clanService.getOnlineMembers(clan))) {
+                if (viewer.getOpenInventory().getTopInventory().getHolder() instanceof ClanMenuHolder holder
+                        && holder.getClan() == clan && holder.getRefresher() != null) {
+                    holder.getRefresher().refresh(viewer);
+                }
             }
-            return;
-        }
-
-        // Top Clans menu
-        if (strippedTitle.contains("Top Clans")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            handleTopClansClick(player, event.getSlot(), title);
-            return;
-        }
-
-        // All Clans menu
-        if (strippedTitle.contains("All Clans")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            handleAllClansClick(player, event.getSlot(), title);
-            return;
-        }
-
-        // Management menu
-        if (strippedTitle.contains("Management")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            handleManageClick(player, event);
-            return;
-        }
-
-        // Settings menu
-        if (strippedTitle.contains("Settings")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            handleSettingsClick(player, event.getSlot());
-            return;
         }
+    }
 
-        // Active Wars menu
-        if (strippedTitle.contains("Active Wars")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            if (event.getSlot() == 48) {
-                openMain(player);
-            }
-            return;
-        }
+    /**
+     * Drops the cached frames, buttons and pages so edited menu text is picked up.
+     */
+    public void reload() {
+        frames.clear();
+        buttons.clear();
+        pages.clear();
+    }
 
-        // Achievements menu
-        if (strippedTitle.contains("Achievements")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            if (event.getSlot() == 48) {
-                openMain(player);
-            }
-            return;
-        }
+    @EventHandler
+    public void onClick(InventoryClickEvent event) {
+        // Other inventories, vanilla chests included, leave after one type check
+        if (!(event.getInventory().getHolder() instanceof ClanMenuHolder holder)) return;
+        event.setCancelled(true);
+        if (!(event.getWhoClicked() instanceof Player player)) return;
 
-        // Clan Stats menu
-        if (strippedTitle.contains("Clan Stats")) {
-            event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            if (event.getSlot() == 48) {
-                openMain(player);
-            }
-            return;
+        ClanMenuHolder.ClickAction action = holder.action(event.getRawSlot());
+        if (action != null) {
+            action.onClick(player);
         }
+    }
 
-        // Clan Bonuses menu
-        if (strippedTitle.contains("Clan Bonuses")) {
+    @EventHandler
+    public void onDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder() instanceof ClanMenuHolder) {
             event.setCancelled(true);
-            if (event.getRawSlot() < 0 || event.getRawSlot() >= 54) return;
-            if (event.getSlot() == 48) {
-                openMain(player);
-            }
-            return;
         }
     }
 
-    private void handleTopClansClick(Player player, int slot, String title) {
-        if (slot == 48) {
-            openMain(player);
-            return;
-        }
-        int page = parsePage(title);
-        if (slot == 45 && page > 0) {
-            openTopClansMenu(player, page - 1);
-        } else if (slot == 53) {
-            openTopClansMenu(player, page + 1);
-        }
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        topViews.remove(event.getPlayer().getUniqueId());
     }
 
-    private void handleAllClansClick(Player player, int slot, String title) {
-        if (slot == 48) {
-            openMain(player);
-            return;
-        }
-        int page = parsePage(title);
-        if (slot == 45 && page > 0) {
-            openAllClansMenu(player, page - 1);
-        } else if (slot == 53) {
-            openAllClansMenu(player, page + 1);
-        }
+    private void cycleTopMetric(Player player) {
+        TopView view = topView(player);
+        // Cycles level -> each metric -> level
+        int next = view.metric() == null ? 0 : view.metric().ordinal() + 1;
+        ClanMetric metric = next < ClanMetric.values().length ? ClanMetric.values()[next] : null;
+        topViews.put(player.getUniqueId(), new TopView(metric, view.window()));
+        openTopClansMenu(player, 0);
     }
 
-    private void handleManageClick(Player player, InventoryClickEvent event) {
-        ItemStack current = event.getCurrentItem();
-        if (current == null || !current.hasItemMeta()) return;
-
-        String title = event.getView().getTitle();
-        int page = parsePage(title);
-
-        // Back button
-        if (event.getSlot() == 48) {
-            openMain(player);
-            return;
-        }
+    private void cycleTopWindow(Player player) {
+        TopView view = topView(player);
+        StatWindow window = StatWindow.values()[(view.window().ordinal() + 1) % StatWindow.values().length];
+        topViews.put(player.getUniqueId(), new TopView(view.metric(), window));
+        openTopClansMenu(player, 0);
+    }
 
-        if (current.getType() == Material.ARROW) {
-            if (event.getSlot() == 45 && page > 0) {
-                openManage(player, page - 1);
-            } else if (event.getSlot() == 53) {
-                openManage(player, page + 1);
-            }
-            return;
-        }
+    private TopView topView(Player player) {
+        return topViews.getOrDefault(player.getUniqueId(), DEFAULT_TOP_VIEW);
+    }
 
-        String name = ChatColor.stripColor(current.getItemMeta().getDisplayName()).replace("§a", "");
-        UUID targetId = Bukkit.getOfflinePlayer(name).getUniqueId();
+    private void changeRank(Player player, UUID targetId, int page) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) return;
         if (player.getUniqueId().equals(targetId)) return;
 
-        ClanRank actorRank = clan.getMembers().get(player.getUniqueId()).getRank();
-        ClanRank targetRank = clan.getMembers().get(targetId).getRank();
+        ClanMember actor = clan.getMembers().get(player.getUniqueId());
+        ClanMember target = clan.getMembers().get(targetId);
+        if (actor == null || target == null) return;
 
-        if (actorRank.canManage(targetRank)) {
-            if (targetRank == ClanRank.MEMBER) {
+        if (actor.getRank().canManage(target.getRank())) {
+            if (target.getRank() == ClanRank.MEMBER) {
                 clanService.promote(player.getUniqueId(), targetId);
             } else {
                 clanService.demote(player.getUniqueId(), targetId);
             }
-            player.sendMessage(Text.color(messages.get("menu.changed")));
+            player.sendMessage(messages.format(player, "menu.changed"));
             openManage(player, page);
         }
     }
 
-    private void handleSettingsClick(Player player, int slot) {
-        Clan clan = clanService.getClanOrNull(player.getUniqueId());
-        if (clan == null) return;
+    /**
+     * Wraps a settings action so only the clan leader can run it.
+     */
+    private ClanMenuHolder.ClickAction leaderOnly(ClanMenuHolder.ClickAction action) {
+        return player -> {
+            Clan clan = clanService.getClanOrNull(player.getUniqueId());
+            if (clan == null) return;
+
+            ClanMember member = clan.getMembers().get(player.getUniqueId());
+            if (member == null || member.getRank() != ClanRank.LEADER) {
+                player.sendMessage(messages.format(player, "error.not-leader"));
+                player.closeInventory();
+                return;
+            }
+            action.onClick(player);
+        };
+    }
 
-        ClanMember member = clan.getMembers().get(player.getUniqueId());
-        if (member == null || member.getRank() != ClanRank.LEADER) {
-            player.sendMessage(Text.color(messages.get("error.not-leader")));
-            player.closeInventory();
-            return;
-        }
+    private void toggleFriendlyFire(Player player) {
+        boolean state = clanService.togglePvp(player.getUniqueId());
+        player.sendMessage(state ? messages.format(player, "clan.pvp-on") : messages.format(player, "clan.pvp-off"));
+        openSettings(player);
+    }
 
-        if (slot == 11) {
-            boolean state = clanService.togglePvp(player.getUniqueId());
-            player.sendMessage(Text.color(state ? messages.get("clan.pvp-on") : messages.get("clan.pvp-off")));
-            openSettings(player);
-        } else if (slot == 15 && featureManager.isClanHomeEnabled()) {
-            boolean ok = clanService.setHome(player.getUniqueId(), com.clanmaster.util.LocationUtil.toString(player.getLocation()));
-            player.sendMessage(Text.color(ok ? messages.get("clan.home-set") : messages.get("error.not-leader")));
-            openSettings(player);
-        } else if (slot == 29 && featureManager.isClanHomeEnabled()) {
-            boolean ok = clanService.delHome(player.getUniqueId());
-            player.sendMessage(Text.color(ok ? messages.get("clan.home-set") : messages.get("error.not-leader")));
-            openSettings(player);
-        } else if (slot == 33 && featureManager.isClanHomeEnabled()) {
-            String locString = clanService.getHome(player.getUniqueId());
-            if (locString == null) {
-                player.sendMessage(Text.color(messages.get("clan.home-missing")));
+    private void setHome(Player player) {
+        boolean ok = clanService.setHome(player.getUniqueId(), com.clanmaster.util.LocationUtil.toString(player.getLocation()));
+        player.sendMessage(ok ? messages.format(player, "clan.home-set") : messages.format(player, "error.not-leader"));
+        openSettings(player);
+    }
+
+    private void deleteHome(Player player) {
+        boolean ok = clanService.delHome(player.getUniqueId());
+        player.sendMessage(ok ? messages.format(player, "clan.home-set") : messages.format(player, "error.not-leader"));
+        openSettings(player);
+    }
+
+    private void teleportHome(Player player) {
+        String locString = clanService.getHome(player.getUniqueId());
+        if (locString == null) {
+            player.sendMessage(messages.format(player, "clan.home-missing"));
+        } else {
+            var loc = com.clanmaster.util.LocationUtil.fromString(locString);
+            if (loc != null) {
+                player.teleport(loc);
+                player.sendMessage(messages.format(player, "clan.home-teleport"));
+                player.closeInventory();
             } else {
-                var loc = com.clanmaster.util.LocationUtil.fromString(locString);
-                if (loc != null) {
-                    player.teleport(loc);
-                    player.sendMessage(Text.color(messages.get("clan.home-teleport")));
-                    player.closeInventory();
-                } else {
-                    player.sendMessage(Text.color(messages.get("clan.home-missing")));
-                }
+                player.sendMessage(messages.format(player, "clan.home-missing"));
             }
-        } else if (slot == 48) {
-            openMain(player);
         }
     }
 
@@ -572,38 +546,76 @@ public class ClanMenu implements Listener {
     }
 
     private void openTopClansMenu(Player player, int page) {
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color("&6&lTop Clans &7#" + (page + 1)));
-        decorate(inv, Material.YELLOW_STAINED_GLASS_PANE);
-        
-        List<Clan> topClans = clanService.topByLevel().values().stream().toList();
+        TopView view = topView(player);
         int start = page * 7;
+        long ttl = view.metric() != null && view.window().isRolling() ? TIMED_PAGE_TTL : 0;
+        pages.open(new MenuPageCache.Key(Type.TOP, view, null, page), clanService.getGlobalVersion(), ttl,
+                () -> snapshotTop(view, start),
+                snapshot -> buildTopPage(snapshot, view, start),
+                built -> {
+                    if (!player.isOnline()) return;
+                    ClanMenuHolder holder = new ClanMenuHolder(Type.TOP, page, null, MENU_SIZE,
+                            Text.color("&6&lTop Clans &7#" + (page + 1)));
+                    Inventory inv = holder.getInventory();
+                    decorate(inv, Material.YELLOW_STAINED_GLASS_PANE);
+                    place(holder, inv, built);
+
+                    inv.setItem(49, new ItemBuilder(Material.COMPASS)
+                            .name("&e&lRanking: &f" + (view.metric() == null ? "Level" : view.metric().getDisplayName()))
+                            .lore(Arrays.asList("&7Click to change metric"))
+                            .build());
+                    holder.on(49, this::cycleTopMetric);
+                    if (view.metric() != null) {
+                        inv.setItem(50, new ItemBuilder(Material.CLOCK)
+                                .name("&e&lPeriod: &f" + view.window().getId())
+                                .lore(Arrays.asList("&7Click to change period"))
+                                .build());
+                        holder.on(50, this::cycleTopWindow);
+                    }
+
+                    backButton(holder, inv, player);
+                    pageButtons(holder, inv, player, built.hasNext(), this::openTopClansMenu);
+
+                    player.openInventory(inv);
+                });
+    }
+
+    private ClanRows snapshotTop(TopView view, int start) {
+        List<Clan> topClans = view.metric() == null
+                ? clanService.topByLevel(start, 7)
+                : clanService.getLeaderboards().top(view.metric(), view.window(), start, 7);
+        List<ClanRow> rows = new ArrayList<>(topClans.size());
+        for (Clan clan : topClans) {
+            rows.add(ClanRow.of(clan, view.metric() == null ? null
+                    : clanService.formatStat(clan, view.metric(), view.window())));
+        }
+        return new ClanRows(rows, clanService.getClanCount());
+    }
+
+    private MenuPageCache.Page buildTopPage(ClanRows snapshot, TopView view, int start) {
+        ItemStack[] items = new ItemStack[MENU_SIZE];
         int index = 10;
-        
-        for (int i = start; i < Math.min(start + 7, topClans.size()); i++) {
-            Clan clan = topClans.get(i);
-            ItemStack head = new ItemBuilder(Material.PLAYER_HEAD)
-                    .name("&6&l#" + (i + 1) + " &f" + clan.getName())
-                    .lore(Arrays.asList(
-                            "&7Level: &a" + clan.getLevel(),
-                            "&7XP: &b" + clan.getXp(),
-                            "&7Members: &e" + clan.getMembers().size(),
-                            "&7War Points: &c" + clan.getWarPoints(),
-                            "",
-                            "&eClick to view info"
-                    ))
+        for (int i = 0; i < snapshot.rows().size(); i++) {
+            ClanRow clan = snapshot.rows().get(i);
+            List<String> lore = new ArrayList<>(Arrays.asList(
+                    "&7Level: &a" + clan.level(),
+                    "&7XP: &b" + clan.xp(),
+                    "&7Members: &e" + clan.members(),
+                    "&7War Points: &c" + clan.warPoints()
+            ));
+            if (view.metric() != null) {
+                lore.add("&7" + view.metric().getDisplayName() + " &8(" + view.window().getId() + ")&7: &6"
+                        + clan.stat());
+            }
+            lore.add("");
+            lore.add("&eClick to view info");
+            items[index] = new ItemBuilder(Material.PLAYER_HEAD)
+                    .name("&6&l#" + (start + i + 1) + " &f" + clan.name())
+                    .lore(lore)
                     .build();
-            inv.setItem(index, head);
             index += 9;
         }
-        
-        inv.setItem(48, new ItemBuilder(Material.ARROW)
-                .name("&c&lBack")
-                .lore(Arrays.asList("&7Return to main menu"))
-                .build());
-        inv.setItem(45, navItem(Material.ARROW, messages.get("menu.prev"), page > 0));
-        inv.setItem(53, navItem(Material.ARROW, messages.get("menu.next"), start + 7 < topClans.size()));
-        
-        player.openInventory(inv);
+        return new MenuPageCache.Page(items, null, start + 7 < snapshot.total());
     }
 
     private void openAllClansMenu(Player player) {
@@ -611,49 +623,85 @@ public class ClanMenu implements Listener {
     }
 
     private void openAllClansMenu(Player player, int page) {
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color("&b&lAll Clans &7#" + (page + 1)));
-        decorate(inv, Material.BLUE_STAINED_GLASS_PANE);
-        
-        List<String> allClans = clanService.listClans();
+        pages.open(new MenuPageCache.Key(Type.ALL_CLANS, null, null, page), clanService.getGlobalVersion(),
+                TIMED_PAGE_TTL,
+                this::snapshotAllClans,
+                snapshot -> buildAllClansPage(snapshot, page),
+                built -> {
+                    if (!player.isOnline()) return;
+                    ClanMenuHolder holder = new ClanMenuHolder(Type.ALL_CLANS, page, null, MENU_SIZE,
+                            Text.color("&b&lAll Clans &7#" + (page + 1)));
+                    Inventory inv = holder.getInventory();
+                    decorate(inv, Material.BLUE_STAINED_GLASS_PANE);
+                    place(holder, inv, built);
+
+                    backButton(holder, inv, player);
+                    pageButtons(holder, inv, player, built.hasNext(), this::openAllClansMenu);
+
+                    player.openInventory(inv);
+                });
+    }
+
+    private ClanRows snapshotAllClans() {
+        List<ClanRow> rows = new ArrayList<>(clanService.getClanCount());
+        for (Clan clan : clanService.snapshot().values()) {
+            rows.add(ClanRow.of(clan, null));
+        }
+        return new ClanRows(rows, rows.size());
+    }
+
+    private MenuPageCache.Page buildAllClansPage(ClanRows snapshot, int page) {
+        List<ClanRow> allClans = new ArrayList<>(snapshot.rows());
+        allClans.sort((a, b) -> a.name().compareToIgnoreCase(b.name()));
+        ItemStack[] items = new ItemStack[MENU_SIZE];
         int start = page * 7;
         int index = 10;
-        
+
         for (int i = start; i < Math.min(start + 7, allClans.size()); i++) {
-            String clanName = allClans.get(i);
-            Clan clan = clanService.getClanByName(clanName).orElse(null);
-            if (clan == null) continue;
-            
-            ItemStack head = new ItemBuilder(Material.BOOK)
-                    .name("&b&l" + clanName)
+            ClanRow clan = allClans.get(i);
+            items[index] = new ItemBuilder(Material.BOOK)
+                    .name("&b&l" + clan.name())
                     .lore(Arrays.asList(
-                            "&7Level: &a" + clan.getLevel(),
-                            "&7XP: &b" + clan.getXp(),
-                            "&7Members: &e" + clan.getMembers().size(),
-                            "&7Activity: " + clanService.getActivityStatus(clan),
+                            "&7Level: &a" + clan.level(),
+                            "&7XP: &b" + clan.xp(),
+                            "&7Members: &e" + clan.members(),
+                            "&7Activity: " + clanService.getActivityStatus(clan.lastActivity()),
                             "",
                             "&eClick to view info"
                     ))
                     .build();
-            inv.setItem(index, head);
             index += 9;
         }
-        
-        inv.setItem(48, new ItemBuilder(Material.ARROW)
-                .name("&c&lBack")
-                .lore(Arrays.asList("&7Return to main menu"))
-                .build());
-        inv.setItem(45, navItem(Material.ARROW, messages.get("menu.prev"), page > 0));
-        inv.setItem(53, navItem(Material.ARROW, messages.get("menu.next"), start + 7 < allClans.size()));
-        
-        player.openInventory(inv);
+        return new MenuPageCache.Page(items, null, start + 7 < allClans.size());
+    }
+
+    /**
+     * Copies a built page into the menu and registers rank changes for slots that stand for a member. On pages with
+     * members, other slots lose their action, so a repainted page does not keep clicks for members who left.
+     */
+    private void place(ClanMenuHolder holder, Inventory inv, MenuPageCache.Page page) {
+        ItemStack[] items = page.items();
+        UUID[] targets = page.targets();
+        for (int slot = 0; slot < items.length; slot++) {
+            if (items[slot] != null) {
+                inv.setItem(slot, items[slot]);
+            }
+            if (targets != null && targets[slot] != null) {
+                UUID targetId = targets[slot];
+                holder.on(slot, viewer -> changeRank(viewer, targetId, holder.getPage()));
+            } else if (targets != null) {
+                holder.on(slot, null);
+            }
+        }
     }
 
     private void openSettings(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) return;
 
-        String title = featureManager.getMenuTextColored("settings-title", "&#ffd166&lSettings");
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color(title));
+        String title = featureManager.getMenuTextColored(player, "settings-title", "&#ffd166&lSettings");
+        ClanMenuHolder holder = new ClanMenuHolder(Type.SETTINGS, 0, clan, MENU_SIZE, title);
+        Inventory inv = holder.getInventory();
         decorate(inv, Material.CYAN_STAINED_GLASS_PANE);
 
         boolean pvpState = clan.isFriendlyFire();
@@ -661,8 +709,8 @@ public class ClanMenu implements Listener {
 
         // Friendly Fire toggle
         String ffName = pvpState ? 
-                featureManager.getMenuTextColored("friendly-fire-on", "&c&lFriendly Fire: ON") :
-                featureManager.getMenuTextColored("friendly-fire-off", "&a&lFriendly Fire: OFF");
+                featureManager.getMenuTextColored(player, "friendly-fire-on", "&c&lFriendly Fire: ON") :
+                featureManager.getMenuTextColored(player, "friendly-fire-off", "&a&lFriendly Fire: OFF");
         inv.setItem(11, new ItemBuilder(pvpState ? Material.REDSTONE_BLOCK : Material.LIME_WOOL)
                 .name(Text.color(ffName))
                 .lore(Arrays.asList(
@@ -671,11 +719,12 @@ public class ClanMenu implements Listener {
                         "&eClick to toggle"
                 ))
                 .build());
+        holder.on(11, leaderOnly(this::toggleFriendlyFire));
 
         // Clan Home items (if enabled)
         if (featureManager.isClanHomeEnabled()) {
             inv.setItem(15, new ItemBuilder(Material.RED_BED)
-                    .name(featureManager.getMenuTextColored("set-home", "&a&lSet Clan Home"))
+                    .name(featureManager.getMenuTextColored(player, "set-home", "&a&lSet Clan Home"))
                     .lore(Arrays.asList(
                             "&7Set the clan home to your",
                             "&7current location",
@@ -685,7 +734,7 @@ public class ClanMenu implements Listener {
                     .build());
 
             inv.setItem(29, new ItemBuilder(Material.SHEARS)
-                    .name(featureManager.getMenuTextColored("delete-home", "&e&lDelete Clan Home"))
+                    .name(featureManager.getMenuTextColored(player, "delete-home", "&e&lDelete Clan Home"))
                     .lore(Arrays.asList(
                             "&7Remove the clan home",
                             hasHome ? "&7Current: &aSet" : "&7Current: &cNot set",
@@ -695,7 +744,7 @@ public class ClanMenu implements Listener {
                     .build());
 
             inv.setItem(33, new ItemBuilder(Material.ENDER_PEARL)
-                    .name(featureManager.getMenuTextColored("teleport-home", "&d&lTeleport to Clan Home"))
+                    .name(featureManager.getMenuTextColored(player, "teleport-home", "&d&lTeleport to Clan Home"))
                     .lore(Arrays.asList(
                             "&7Teleport to your clan home",
                             hasHome ? "&7Status: &aAvailable" : "&7Status: &cNot set",
@@ -703,12 +752,12 @@ public class ClanMenu implements Listener {
                             "&eClick to teleport"
                     ))
                     .build());
+            holder.on(15, leaderOnly(this::setHome));
+            holder.on(29, leaderOnly(this::deleteHome));
+            holder.on(33, leaderOnly(this::teleportHome));
         }
 
-        inv.setItem(48, new ItemBuilder(Material.ARROW)
-                .name(featureManager.getMenuTextColored("back", "&c&lBack"))
-                .lore(Arrays.asList(featureManager.getMenuTextColored("back-desc", "&7Return to main menu")))
-                .build());
+        backButton(holder, inv, player);
 
         player.openInventory(inv);
     }
@@ -717,53 +766,101 @@ public class ClanMenu implements Listener {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) return;
 
-        String manageTitle = featureManager.getMenuTextColored("manage-title", "&#f3b4ff&lManagement");
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color(manageTitle + " #" + (page + 1)));
+        loadManagePage(player, clan, page, built -> {
+            if (!player.isOnline()) return;
+            String manageTitle = featureManager.getMenuTextColored(player, "manage-title", "&#f3b4ff&lManagement");
+            ClanMenuHolder holder = new ClanMenuHolder(Type.MANAGE, page, clan, MENU_SIZE,
+                    manageTitle + " #" + (page + 1));
+            paintManage(player, holder, holder.getInventory(), built);
+            holder.setRefresher(viewer -> loadManagePage(viewer, clan, page, rebuilt -> {
+                // The viewer may have moved on while the page was being rebuilt
+                if (viewer.getOpenInventory().getTopInventory().getHolder() == holder) {
+                    repaint(viewer, holder, (p, h, draft) -> paintManage(p, h, draft, rebuilt));
+                }
+            }));
+            player.openInventory(holder.getInventory());
+        });
+    }
+
+    private void loadManagePage(Player player, Clan clan, int page, Consumer<MenuPageCache.Page> show) {
+        String clickHint = messages.get(player, "menu.click-demote");
+        // The clan version also changes when a member comes online or goes offline. Both versions only grow, so
+        // their sum changes whenever either does and heads pick up names and skins resolved since the last build.
+        long version = clan.getVersion() + clanService.getProfiles().getVersion();
+        pages.open(new MenuPageCache.Key(Type.MANAGE, clan, messages.languageOf(player), page), version, 0,
+                () -> snapshotMembers(clan),
+                members -> buildManagePage(members, page, clickHint),
+                show);
+    }
+
+    private void paintManage(Player player, ClanMenuHolder holder, Inventory inv, MenuPageCache.Page built) {
         decorate(inv, Material.PURPLE_STAINED_GLASS_PANE);
-        
+        place(holder, inv, built);
+
+        pageButtons(holder, inv, player, built.hasNext(), this::openManage);
+
+        backButton(holder, inv, player);
+    }
+
+    private List<MemberRow> snapshotMembers(Clan clan) {
+        Collection<Player> online = clanService.getOnlineMembers(clan);
+        List<MemberRow> rows = new ArrayList<>(clan.getMembers().size());
+        for (ClanMember member : clan.getMembers().values()) {
+            boolean isOnline = false;
+            for (Player player : online) {
+                if (player.getUniqueId().equals(member.getUuid())) {
+                    isOnline = true;
+                    break;
+                }
+            }
+            rows.add(new MemberRow(member.getUuid(), member.getRank(), isOnline));
+        }
+        return rows;
+    }
+
+    private MenuPageCache.Page buildManagePage(List<MemberRow> members, int page, String clickHint) {
+        ProfileCache profiles = clanService.getProfiles();
+        ItemStack[] items = new ItemStack[MENU_SIZE];
+        UUID[] targets = new UUID[MENU_SIZE];
         int start = page * 28;
         int index = 10;
-        var members = clan.getMembers().values().stream().toList();
-        
+
         for (int i = start; i < Math.min(start + 28, members.size()); i++) {
-            ClanMember member = members.get(i);
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(member.getUuid());
-            boolean isOnline = offlinePlayer.isOnline();
-            
-            ItemStack head = new ItemBuilder(Material.PLAYER_HEAD)
-                    .name((isOnline ? "&a" : "&7") + offlinePlayer.getName())
+            MemberRow member = members.get(i);
+            boolean isOnline = member.online();
+
+            items[index] = new ItemBuilder(Material.PLAYER_HEAD)
+                    .name((isOnline ? "&a" : "&7") + profiles.name(member.uuid(), "Unknown"))
+                    .owner(profiles.profile(member.uuid()))
                     .lore(Arrays.asList(
-                            "&7Rank: " + member.getRank().name(),
+                            "&7Rank: " + member.rank().name(),
                             isOnline ? "&aOnline" : "&cOffline",
                             "",
-                            messages.get("menu.click-demote")
+                            clickHint
                     ))
                     .build();
-            inv.setItem(index++, head);
+            targets[index++] = member.uuid();
             if ((index + 1) % 9 == 0) {
                 index += 2;
             }
         }
-        
-        inv.setItem(45, navItem(Material.ARROW, messages.get("menu.prev"), page > 0));
-        inv.setItem(53, navItem(Material.ARROW, messages.get("menu.next"), start + 28 < members.size()));
-
-        // Back button
-        inv.setItem(48, new ItemBuilder(Material.ARROW)
-                .name(featureManager.getMenuTextColored("back", "&c&lBack"))
-                .lore(Arrays.asList(featureManager.getMenuTextColored("back-desc", "&7Return to main menu")))
-                .build());
-
-        player.openInventory(inv);
+        return new MenuPageCache.Page(items, targets, start + 28 < members.size());
     }
 
     private void openWarsMenu(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) return;
 
-        String title = featureManager.getMenuTextColored("wars-title", "&c&lActive Wars");
-        String noWarsText = featureManager.getMenuTextColored("no-wars", "&7No Active Wars");
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color(title));
+        String title = featureManager.getMenuTextColored(player, "wars-title", "&c&lActive Wars");
+        ClanMenuHolder holder = new ClanMenuHolder(Type.WARS, 0, clan, MENU_SIZE, title);
+        paintWars(player, holder, holder.getInventory());
+        live(holder, this::paintWars);
+        player.openInventory(holder.getInventory());
+    }
+
+    private void paintWars(Player player, ClanMenuHolder holder, Inventory inv) {
+        Clan clan = holder.getClan();
+        String noWarsText = featureManager.getMenuTextColored(player, "no-wars", "&7No Active Wars");
         decorate(inv, Material.RED_STAINED_GLASS_PANE);
 
         int index = 10;
@@ -775,7 +872,7 @@ public class ClanMenu implements Listener {
         } else {
             for (Map.Entry<String, Clan.War> entry : clan.getActiveWars().entrySet()) {
                 Clan.War war = entry.getValue();
-                String vsTitle = featureManager.getMenuTextColored("war-vs", "&c&lvs {clan}")
+                String vsTitle = featureManager.getMenuTextColored(player, "war-vs", "&c&lvs {clan}")
                         .replace("{clan}", war.getEnemyClan());
                 ItemStack item = new ItemBuilder(Material.REDSTONE_BLOCK)
                         .name(Text.color(vsTitle))
@@ -791,22 +888,17 @@ public class ClanMenu implements Listener {
             }
         }
 
-        // Back button
-        inv.setItem(48, new ItemBuilder(Material.ARROW)
-                .name(featureManager.getMenuTextColored("back", "&c&lBack"))
-                .lore(Arrays.asList(featureManager.getMenuTextColored("back-desc", "&7Return to main menu")))
-                .build());
-
-        player.openInventory(inv);
+        backButton(holder, inv, player);
     }
 
     private void openAchievementsMenu(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) return;
 
-        String title = featureManager.getMenuTextColored("achievements-title", "&6&lAchievements");
-        String noAchievementsText = featureManager.getMenuTextColored("no-achievements", "&7No Achievements");
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color(title));
+        String title = featureManager.getMenuTextColored(player, "achievements-title", "&6&lAchievements");
+        String noAchievementsText = featureManager.getMenuTextColored(player, "no-achievements", "&7No Achievements");
+        ClanMenuHolder holder = new ClanMenuHolder(Type.ACHIEVEMENTS, 0, clan, MENU_SIZE, title);
+        Inventory inv = holder.getInventory();
         decorate(inv, Material.YELLOW_STAINED_GLASS_PANE);
 
         int index = 10;
@@ -826,36 +918,96 @@ public class ClanMenu implements Listener {
             }
         }
 
-        // Back button
-        inv.setItem(48, new ItemBuilder(Material.ARROW)
-                .name(featureManager.getMenuTextColored("back", "&c&lBack"))
-                .lore(Arrays.asList(featureManager.getMenuTextColored("back-desc", "&7Return to main menu")))
-                .build());
+        backButton(holder, inv, player);
 
         player.openInventory(inv);
     }
 
-    private ItemStack navItem(Material mat, String name, boolean enabled) {
-        if (!enabled) return new ItemBuilder(Material.GRAY_STAINED_GLASS_PANE).name(" ").build();
-        return new ItemBuilder(mat).name(name).build();
+    /**
+     * Places the back button, which returns to the main menu.
+     */
+    private void backButton(ClanMenuHolder holder, Inventory inv, Player player) {
+        inv.setItem(BACK_SLOT, button(player, "back", () -> new ItemBuilder(Material.ARROW)
+                .name(featureManager.getMenuTextColored(player, "back", "&c&lBack"))
+                .lore(Arrays.asList(featureManager.getMenuTextColored(player, "back-desc", "&7Return to main menu")))
+                .build()));
+        holder.on(BACK_SLOT, this::openMain);
     }
 
-    private int parsePage(String title) {
-        int idx = title.lastIndexOf('#');
-        if (idx == -1) return 0;
-        try {
-            return Integer.parseInt(ChatColor.stripColor(title.substring(idx + 1)).trim()) - 1;
-        } catch (NumberFormatException ex) {
-            return 0;
+    /**
+     * Places the previous and next page buttons, greyed out where there is no page to go to.
+     */
+    private void pageButtons(ClanMenuHolder holder, Inventory inv, Player player, boolean hasNext, PageOpener opener) {
+        int page = holder.getPage();
+        if (page > 0) {
+            inv.setItem(PREV_SLOT, button(player, "prev", () -> new ItemBuilder(Material.ARROW)
+                    .name(messages.get(player, "menu.prev")).build()));
+            holder.on(PREV_SLOT, viewer -> opener.open(viewer, page - 1));
+        } else {
+            inv.setItem(PREV_SLOT, button(null, "nav-off", this::disabledNav));
+            holder.on(PREV_SLOT, null);
         }
+        if (hasNext) {
+            inv.setItem(NEXT_SLOT, button(player, "next", () -> new ItemBuilder(Material.ARROW)
+                    .name(messages.get(player, "menu.next")).build()));
+            holder.on(NEXT_SLOT, viewer -> opener.open(viewer, page + 1));
+        } else {
+            inv.setItem(NEXT_SLOT, button(null, "nav-off", this::disabledNav));
+            holder.on(NEXT_SLOT, null);
+        }
+    }
+
+    private ItemStack disabledNav() {
+        return new ItemBuilder(Material.GRAY_STAINED_GLASS_PANE).name(" ").build();
+    }
+
+    /**
+     * Returns a cached button in the viewer's language; a null viewer means the button has no text to translate.
+     */
+    private ItemStack button(Player viewer, String id, Supplier<ItemStack> factory) {
+        String key = viewer == null ? id : messages.languageOf(viewer) + ':' + id;
+        return buttons.computeIfAbsent(key, ignored -> factory.get());
+    }
+
+    @FunctionalInterface
+    private interface PageOpener {
+        void open(Player player, int page);
+    }
+
+    /**
+     * Draws a menu's items into an inventory, either the menu's own or a draft to repaint it from.
+     */
+    @FunctionalInterface
+    private interface Painter {
+        void paint(Player viewer, ClanMenuHolder holder, Inventory target);
+    }
+
+    /**
+     * Makes an open menu follow its clan: on change it is painted again and only the differing slots are sent.
+     */
+    private void live(ClanMenuHolder holder, Painter painter) {
+        holder.setRefresher(viewer -> repaint(viewer, holder, painter));
+    }
+
+    private void repaint(Player viewer, ClanMenuHolder holder, Painter painter) {
+        Inventory draft = Bukkit.createInventory(null, holder.getInventory().getSize());
+        painter.paint(viewer, holder, draft);
+        holder.repaint(draft.getContents());
     }
 
     private void openStats(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) return;
 
-        String title = featureManager.getMenuTextColored("stats-title", "&b&lClan Stats");
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color(title));
+        String title = featureManager.getMenuTextColored(player, "stats-title", "&b&lClan Stats");
+        ClanMenuHolder holder = new ClanMenuHolder(Type.STATS, 0, clan, MENU_SIZE, title);
+        paintStats(player, holder, holder.getInventory());
+        live(holder, this::paintStats);
+        player.openInventory(holder.getInventory());
+    }
+
+    private void paintStats(Player player, ClanMenuHolder holder, Inventory inv) {
+        Clan clan = holder.getClan();
         decorate(inv, Material.BLUE_STAINED_GLASS_PANE);
 
         // Stats info item
@@ -876,28 +1028,23 @@ public class ClanMenu implements Listener {
                 .build();
         inv.setItem(22, info);
 
-        // Back button
-        inv.setItem(48, new ItemBuilder(Material.ARROW)
-                .name(featureManager.getMenuTextColored("back", "&c&lBack"))
-                .lore(Arrays.asList(featureManager.getMenuTextColored("back-desc", "&7Return to main menu")))
-                .build());
-
-        player.openInventory(inv);
+        backButton(holder, inv, player);
     }
 
     private void openBonuses(Player player) {
         Clan clan = clanService.getClanOrNull(player.getUniqueId());
         if (clan == null) return;
 
-        String title = featureManager.getMenuTextColored("bonuses-title", "&a&lClan Bonuses");
-        Inventory inv = Bukkit.createInventory(player, 54, Text.color(title));
+        String title = featureManager.getMenuTextColored(player, "bonuses-title", "&a&lClan Bonuses");
+        ClanMenuHolder holder = new ClanMenuHolder(Type.BONUSES, 0, clan, MENU_SIZE, title);
+        Inventory inv = holder.getInventory();
         decorate(inv, Material.GREEN_STAINED_GLASS_PANE);
 
         BonusService.Bonus currentBonus = bonusService.getBonus(clan.getLevel());
         BonusService.Bonus nextBonus = bonusService.getBonus(clan.getLevel() + 1);
 
         // Current bonus info
-        String currentTitle = featureManager.getMenuTextColored("current-bonus", "&a&lCurrent Bonus (Level {level})")
+        String currentTitle = featureManager.getMenuTextColored(player, "current-bonus", "&a&lCurrent Bonus (Level {level})")
                 .replace("{level}", String.valueOf(clan.getLevel()));
         ItemStack current = new ItemBuilder(Material.EMERALD_BLOCK)
                 .name(Text.color(currentTitle))
@@ -913,7 +1060,7 @@ public class ClanMenu implements Listener {
 
         // Next bonus info
         if (nextBonus.getLevel() <= 10) {
-            String nextTitle = featureManager.getMenuTextColored("next-bonus", "&e&lNext Bonus (Level {level})")
+            String nextTitle = featureManager.getMenuTextColored(player, "next-bonus", "&e&lNext Bonus (Level {level})")
                     .replace("{level}", String.valueOf(nextBonus.getLevel()));
             ItemStack next = new ItemBuilder(Material.GOLD_BLOCK)
                     .name(Text.color(nextTitle))
@@ -928,11 +1075,7 @@ public class ClanMenu implements Listener {
             inv.setItem(24, next);
         }
 
-        // Back button
-        inv.setItem(48, new ItemBuilder(Material.ARROW)
-                .name(featureManager.getMenuTextColored("back", "&c&lBack"))
-                .lore(Arrays.asList(featureManager.getMenuTextColored("back-desc", "&7Return to main menu")))
-                .build());
+        backButton(holder, inv, player);
 
         player.openInventory(inv);
     }
@@ -1000,13 +1143,25 @@ public class ClanMenu implements Listener {
         return count.get();
     }
 
-    private String getLeaderName(Clan clan) {
-        for (Map.Entry<UUID, ClanMember> entry : clan.getMembers().entrySet()) {
-            if (entry.getValue().getRank() == ClanRank.LEADER) {
-                OfflinePlayer p = Bukkit.getOfflinePlayer(entry.getKey());
-                return p.getName() != null ? p.getName() : "Unknown";
-            }
+    private record TopView(ClanMetric metric, StatWindow window) {
+    }
+
+    /**
+     * Values of one clan copied on the main thread for building a list page.
+     *
+     * @param stat formatted ranking value, or null when the page shows none
+     */
+    private record ClanRow(String name, int level, double xp, int members, int warPoints, long lastActivity,
+                           String stat) {
+        private static ClanRow of(Clan clan, String stat) {
+            return new ClanRow(clan.getName(), clan.getLevel(), clan.getXp(), clan.getMembers().size(),
+                    clan.getWarPoints(), clan.getLastActivity(), stat);
         }
-        return "Unknown";
+    }
+
+    private record ClanRows(List<ClanRow> rows, int total) {
+    }
+
+    private record MemberRow(UUID uuid, ClanRank rank, boolean online) {
     }
 }
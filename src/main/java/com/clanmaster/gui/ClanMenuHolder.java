@@ -0,0 +1,131 @@
+package com.clanmaster.gui;
+
+import com.clanmaster.model.Clan;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Objects;
+
+/**
+ * Marks an inventory as one of the clan menus and carries its state, so clicks are routed by holder and slot instead
+ * of by parsing the title. Each slot maps to at most one action, registered while the menu is built. Menus that show
+ * live clan data also carry a refresher, which redraws them in place while they stay open.
+ */
+public class ClanMenuHolder implements InventoryHolder {
+
+    /**
+     * The menus {@link ClanMenu} can show.
+     */
+    public enum Type {
+        BROWSER,
+        MAIN,
+        TOP,
+        ALL_CLANS,
+        MANAGE,
+        SETTINGS,
+        WARS,
+        ACHIEVEMENTS,
+        STATS,
+        BONUSES
+    }
+
+    /**
+     * What happens when the viewer clicks a slot.
+     */
+    @FunctionalInterface
+    public interface ClickAction {
+        void onClick(Player player);
+    }
+
+    /**
+     * Redraws an open menu for its viewer, usually through {@link #repaint(ItemStack[])}.
+     */
+    @FunctionalInterface
+    public interface Refresher {
+        void refresh(Player viewer);
+    }
+
+    private final Type type;
+    private final int page;
+    private final Clan clan;
+    private final ClickAction[] actions;
+    private final Inventory inventory;
+    private Refresher refresher;
+
+    /**
+     * Creates the holder together with its inventory.
+     *
+     * @param clan clan the menu shows, or null for menus not tied to one
+     */
+    public ClanMenuHolder(Type type, int page, Clan clan, int size, String title) {
+        this.type = type;
+        this.page = page;
+        this.clan = clan;
+        this.actions = new ClickAction[size];
+        this.inventory = Bukkit.createInventory(this, size, title);
+    }
+
+    /**
+     * Registers the action for a slot, replacing any earlier one.
+     */
+    public void on(int slot, ClickAction action) {
+        actions[slot] = action;
+    }
+
+    /**
+     * Returns the action for a raw slot, or null if the slot does nothing or is outside this menu.
+     */
+    public ClickAction action(int rawSlot) {
+        return rawSlot >= 0 && rawSlot < actions.length ? actions[rawSlot] : null;
+    }
+
+    /**
+     * Replaces the menu's contents, touching only slots whose item differs. Unchanged slots send nothing to the
+     * viewer, and the window is not reopened, so the cursor stays where it is.
+     *
+     * @return number of slots changed
+     */
+    public int repaint(ItemStack[] contents) {
+        ItemStack[] current = inventory.getContents();
+        int changed = 0;
+        for (int slot = 0; slot < current.length; slot++) {
+            ItemStack next = slot < contents.length ? contents[slot] : null;
+            if (!Objects.equals(current[slot], next)) {
+                inventory.setItem(slot, next);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param refresher redraws the menu when its clan changes, or null if the menu is a static snapshot
+     */
+    public void setRefresher(Refresher refresher) {
+        this.refresher = refresher;
+    }
+
+    public Refresher getRefresher() {
+        return refresher;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public Clan getClan() {
+        return clan;
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
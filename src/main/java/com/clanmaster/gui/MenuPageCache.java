@@ -0,0 +1,100 @@
+package com.clanmaster.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builds the item pages of list menus off the main thread and caches them per menu, page and data version.
+ * <p>
+ * The data a page needs is copied into an immutable snapshot on the main thread, the items are built from it on a
+ * worker, and only placing them into an inventory runs back on the main thread. A page stays valid until the data
+ * version changes or its time to live runs out; players asking for a page that is still being built share that build.
+ */
+public class MenuPageCache {
+
+    /** Pages kept at most; the cache starts over when full, since stale pages are cheap to rebuild. */
+    private static final int MAX_PAGES = 512;
+
+    /**
+     * Identifies a page.
+     *
+     * @param subject  what the page lists, e.g. a clan or a ranking, or null
+     * @param language language of the page's text, or null if it has none
+     */
+    public record Key(ClanMenuHolder.Type type, Object subject, String language, int page) {
+    }
+
+    /**
+     * Built content of one page.
+     *
+     * @param items   items by slot, null where the page leaves the slot empty
+     * @param targets player each slot stands for, or null
+     * @param hasNext whether a following page exists
+     */
+    public record Page(ItemStack[] items, UUID[] targets, boolean hasNext) {
+    }
+
+    private record Entry(long version, long expiresAt, CompletableFuture<Page> page) {
+    }
+
+    private final Plugin plugin;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public MenuPageCache(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Shows a page, building it first if no valid one is cached. Must be called on the main thread; {@code show} runs
+     * on the main thread too, right away when the page is cached.
+     *
+     * @param version   current version of the data the page lists
+     * @param ttlMillis how long the page stays valid for unchanged data, or 0 for as long as the version holds
+     * @param snapshot  copies the data the page needs; runs on the main thread and only on a cache miss
+     * @param builder   builds the page from the snapshot on a worker thread
+     */
+    public <S> void open(Key key, long version, long ttlMillis, Supplier<S> snapshot, Function<S, Page> builder,
+                         Consumer<Page> show) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version() != version || now >= entry.expiresAt()
+                || entry.page().isCompletedExceptionally()) {
+            if (entries.size() >= MAX_PAGES) {
+                entries.clear();
+            }
+            S data = snapshot.get();
+            CompletableFuture<Page> future = new CompletableFuture<>();
+            entry = new Entry(version, ttlMillis > 0 ? now + ttlMillis : Long.MAX_VALUE, future);
+            entries.put(key, entry);
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    future.complete(builder.apply(data));
+                } catch (Exception ex) {
+                    plugin.getLogger().warning("Failed to build menu page: " + ex.getMessage());
+                    future.completeExceptionally(ex);
+                }
+            });
+        }
+        CompletableFuture<Page> future = entry.page();
+        if (future.isDone()) {
+            if (!future.isCompletedExceptionally()) {
+                show.accept(future.join());
+            }
+            return;
+        }
+        future.thenAccept(page -> Bukkit.getScheduler().runTask(plugin, () -> show.accept(page)));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
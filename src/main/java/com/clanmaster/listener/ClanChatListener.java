@@ -0,0 +1,46 @@
+package com.clanmaster.listener;
+
+import com.clanmaster.service.ChatChannel;
+import com.clanmaster.service.ClanChatService;
+import com.clanmaster.service.ClanService;
+import com.clanmaster.util.FeatureManager;
+import com.clanmaster.util.MessageResolver;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+
+/**
+ * Routes the chat of players who toggled a clan channel into it instead of public chat.
+ */
+public class ClanChatListener implements Listener {
+
+    private final ClanService clanService;
+    private final ClanChatService chat;
+    private final MessageResolver messages;
+    private final FeatureManager featureManager;
+
+    public ClanChatListener(ClanService clanService, ClanChatService chat, MessageResolver messages,
+                            FeatureManager featureManager) {
+        this.clanService = clanService;
+        this.chat = chat;
+        this.messages = messages;
+        this.featureManager = featureManager;
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onChat(AsyncPlayerChatEvent event) {
+        Player player = event.getPlayer();
+        ChatChannel channel = clanService.getChatChannel(player.getUniqueId());
+        if (channel == null || !featureManager.isClanChatEnabled()) {
+            return;
+        }
+        event.setCancelled(true);
+        if (!chat.send(player, channel, event.getMessage())) {
+            // Left the clan or lost the rank since toggling; do not leak the message into public chat
+            clanService.setChatChannel(player.getUniqueId(), null);
+            player.sendMessage(messages.format(player, "chat.channel-reset"));
+        }
+    }
+}
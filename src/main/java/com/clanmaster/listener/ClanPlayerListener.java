@@ -0,0 +1,32 @@
+package com.clanmaster.listener;
+
+import com.clanmaster.service.ClanService;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Keeps the clans' online member sets in step with players joining and leaving the server, and records the name and
+ * skin of every player who joins.
+ */
+public class ClanPlayerListener implements Listener {
+
+    private final ClanService clanService;
+
+    public ClanPlayerListener(ClanService clanService) {
+        this.clanService = clanService;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        clanService.getProfiles().remember(event.getPlayer());
+        clanService.trackOnline(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        clanService.trackOffline(event.getPlayer());
+    }
+}
@@ -0,0 +1,31 @@
+package com.clanmaster.listener;
+
+import com.clanmaster.service.CombatService;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.PlayerDeathEvent;
+
+/**
+ * Feeds player deaths into the combat queue. Only ids are captured here; stats are applied in the next tick's batch.
+ */
+public class CombatListener implements Listener {
+
+    private final CombatService combat;
+
+    public CombatListener(CombatService combat) {
+        this.combat = combat;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        Player victim = event.getEntity();
+        Player killer = victim.getKiller();
+        // Suicides with a projectile or explosion report the victim as killer
+        if (killer != null && killer.getUniqueId().equals(victim.getUniqueId())) {
+            killer = null;
+        }
+        combat.submit(killer == null ? null : killer.getUniqueId(), victim.getUniqueId());
+    }
+}
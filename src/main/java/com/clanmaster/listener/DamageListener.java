@@ -0,0 +1,84 @@
+package com.clanmaster.listener;
+
+import com.clanmaster.service.ClanService;
+import com.clanmaster.util.FeatureManager;
+import org.bukkit.entity.AnimalTamer;
+import org.bukkit.entity.AreaEffectCloud;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.entity.Tameable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.projectiles.ProjectileSource;
+
+import java.util.UUID;
+
+/**
+ * Cancels damage between clan mates and allies according to their friendly fire setting. Damage dealt through
+ * projectiles, primed TNT, lingering potions and tamed animals counts as the owning player's, and tamed animals are
+ * protected like their owner.
+ */
+public class DamageListener implements Listener {
+
+    private final ClanService clanService;
+    private final FeatureManager featureManager;
+
+    public DamageListener(ClanService clanService, FeatureManager featureManager) {
+        this.clanService = clanService;
+        this.featureManager = featureManager;
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onDamage(EntityDamageByEntityEvent event) {
+        UUID victim = owner(event.getEntity());
+        if (victim == null || !featureManager.isFriendlyFireEnabled()) {
+            return;
+        }
+        UUID attacker = attacker(event.getDamager());
+        // Hurting yourself or your own pet is never blocked
+        if (attacker == null || attacker.equals(victim)) {
+            return;
+        }
+        if (!clanService.canDamage(attacker, victim, featureManager.isAlliancesEnabled())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Resolves the player responsible for the damage, or null if it was not a player.
+     */
+    private static UUID attacker(Entity damager) {
+        if (damager instanceof Projectile) {
+            return source(((Projectile) damager).getShooter());
+        }
+        if (damager instanceof TNTPrimed) {
+            return owner(((TNTPrimed) damager).getSource());
+        }
+        if (damager instanceof AreaEffectCloud) {
+            return source(((AreaEffectCloud) damager).getSource());
+        }
+        return owner(damager);
+    }
+
+    private static UUID source(ProjectileSource source) {
+        return source instanceof Entity ? owner((Entity) source) : null;
+    }
+
+    /**
+     * Returns the player an entity stands for: the player itself or the owner of a tamed animal.
+     */
+    private static UUID owner(Entity entity) {
+        if (entity instanceof Player) {
+            return entity.getUniqueId();
+        }
+        if (entity instanceof Tameable) {
+            AnimalTamer tamer = ((Tameable) entity).getOwner();
+            return tamer == null ? null : tamer.getUniqueId();
+        }
+        return null;
+    }
+}
@@ -1,45 +1,53 @@
 package com.clanmaster.model;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a clan with metadata and roster.
+ * <p>
+ * Collections are concurrent, so the writer thread can read a clan while the main thread changes it. Changes spanning
+ * several fields go through {@code ClanService} under the clan's lock, and saves write a {@link #copy()} taken under
+ * the same lock.
  */
 public class Clan {
 
-    private final String name;
+    private String name;
     private int level;
     private double xp;
-    private final Map<UUID, ClanMember> members = new HashMap<>();
+    private final Map<UUID, ClanMember> members = new ConcurrentHashMap<>();
     private String description;
     private double coins;
     private String prefix = "";
     private boolean friendlyFire = false;
     private String home = "";
-    private final Set<String> allies = new HashSet<>();
-    private final Set<String> enemies = new HashSet<>();
+    private final Set<String> allies = ConcurrentHashMap.newKeySet();
+    private final Set<String> enemies = ConcurrentHashMap.newKeySet();
     private double points = 0.0;
-    private final Map<UUID, Double> playerPoints = new HashMap<>();
-    private final Map<UUID, Integer> kills = new HashMap<>();
-    private final Map<UUID, Integer> deaths = new HashMap<>();
-    private final Map<UUID, Long> joinAt = new HashMap<>();
-    private final Set<String> lockedChests = new HashSet<>();
+    private final Map<UUID, Double> playerPoints = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> kills = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> deaths = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> joinAt = new ConcurrentHashMap<>();
+    private final Set<String> lockedChests = ConcurrentHashMap.newKeySet();
     
     // New features
     private String motd = "";
-    private final Map<String, War> activeWars = new HashMap<>();
-    private final Set<String> achievements = new HashSet<>();
+    private final Map<String, War> activeWars = new ConcurrentHashMap<>();
+    private final Set<String> achievements = ConcurrentHashMap.newKeySet();
     private String title = "";
     private int warPoints = 0;
     private int wins = 0;
     private int losses = 0;
     private long lastActivity = System.currentTimeMillis();
-    private final Map<UUID, Integer> dailyKills = new HashMap<>();
+    private final Map<UUID, Integer> dailyKills = new ConcurrentHashMap<>();
     private long lastDailyReset = System.currentTimeMillis();
+    /** Modification counter for caches; not persisted. */
+    private final transient AtomicLong version = new AtomicLong();
+    /** Counter for relation lookups, bumped only by relation and name changes; not persisted. */
+    private final transient AtomicLong relationVersion = new AtomicLong();
 
     /**
      * Creates a new clan with default level and xp.
@@ -57,6 +65,10 @@ public class Clan {
         return name;
     }
 
+    public void setName(String name) {
+        this.name = name;
+    }
+
     public int getLevel() {
         return level;
     }
@@ -222,6 +234,63 @@ public class Clan {
         this.lastDailyReset = lastDailyReset;
     }
 
+    /**
+     * Returns a deep copy of the persisted state, for writing to storage without racing later changes.
+     */
+    public Clan copy() {
+        Clan copy = new Clan(name);
+        copy.level = level;
+        copy.xp = xp;
+        members.forEach((id, member) -> copy.members.put(id, new ClanMember(id, member.getRank())));
+        copy.description = description;
+        copy.coins = coins;
+        copy.prefix = prefix;
+        copy.friendlyFire = friendlyFire;
+        copy.home = home;
+        copy.allies.addAll(allies);
+        copy.enemies.addAll(enemies);
+        copy.points = points;
+        copy.playerPoints.putAll(playerPoints);
+        copy.kills.putAll(kills);
+        copy.deaths.putAll(deaths);
+        copy.joinAt.putAll(joinAt);
+        copy.lockedChests.addAll(lockedChests);
+        copy.motd = motd;
+        activeWars.forEach((key, war) -> copy.activeWars.put(key, war.copy()));
+        copy.achievements.addAll(achievements);
+        copy.title = title;
+        copy.warPoints = warPoints;
+        copy.wins = wins;
+        copy.losses = losses;
+        copy.lastActivity = lastActivity;
+        copy.dailyKills.putAll(dailyKills);
+        copy.lastDailyReset = lastDailyReset;
+        return copy;
+    }
+
+    /**
+     * Returns a counter that changes whenever the clan is marked as modified.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void bumpVersion() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns a counter that changes only when the clan's name, allies, enemies or active wars change, so relation
+     * lookups are not rebuilt on every kill or join.
+     */
+    public long getRelationVersion() {
+        return relationVersion.get();
+    }
+
+    public void bumpRelationVersion() {
+        relationVersion.incrementAndGet();
+    }
+
     /**
      * Represents an active war between clans.
      */
@@ -233,13 +302,31 @@ public class Clan {
         private boolean active;
 
         public War(String enemyClan) {
+            this(enemyClan, System.currentTimeMillis());
+        }
+
+        /**
+         * Creates a war with a known start time, used when restoring wars from storage.
+         *
+         * @param enemyClan opposing clan name
+         * @param startTime epoch millis the war was declared
+         */
+        public War(String enemyClan, long startTime) {
             this.enemyClan = enemyClan;
-            this.startTime = System.currentTimeMillis();
+            this.startTime = startTime;
             this.killsClan1 = 0;
             this.killsClan2 = 0;
             this.active = true;
         }
 
+        public War copy() {
+            War copy = new War(enemyClan, startTime);
+            copy.killsClan1 = killsClan1;
+            copy.killsClan2 = killsClan2;
+            copy.active = active;
+            return copy;
+        }
+
         public String getEnemyClan() {
             return enemyClan;
         }
@@ -1,21 +1,105 @@
 package com.clanmaster.placeholder;
 
+import com.clanmaster.ClanMasterSettings;
+import com.clanmaster.model.Clan;
+import com.clanmaster.service.ClanMetric;
+import com.clanmaster.service.ClanRelation;
 import com.clanmaster.service.ClanService;
+import com.clanmaster.service.StatWindow;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import me.clip.placeholderapi.expansion.Relational;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * PlaceholderAPI integration providing clan placeholders.
+ * <p>
+ * Each placeholder name resolves once to a handler that is cached by the exact string PlaceholderAPI passes in, so
+ * repeated requests skip lower-casing and parsing. Config values come from the plugin's settings snapshot.
+ * <p>
+ * Results are cached per player and placeholder, stamped with the version of the player's clan (or the global
+ * version for rankings), so scoreboards polling unchanged values never touch the model. Clock-driven values also
+ * carry a TTL.
  */
-public class ClanPlaceholderExpansion extends PlaceholderExpansion {
+public class ClanPlaceholderExpansion extends PlaceholderExpansion implements Relational, Listener {
+
+    /** Bound on cached parameter strings, so arbitrary input cannot grow the cache without limit. */
+    private static final int MAX_RESOLVED = 4096;
+    private static final String[] SMALL_INTS = new String[1024];
+    /** Lifetime of values that change with the clock rather than with clan data. */
+    private static final long TIME_TTL = 60_000L;
+    private static final long ONLINE_TTL = 1_000L;
+    private static final Placeholder EMPTY = new Placeholder((player, clan) -> "", Scope.CLAN, 0);
+
+    static {
+        for (int i = 0; i < SMALL_INTS.length; i++) {
+            SMALL_INTS[i] = Integer.toString(i);
+        }
+    }
 
     private final ClanService clanService;
     private final Object plugin;
+    private final Map<String, Placeholder> handlers = new HashMap<>();
+    private final Map<String, Placeholder> resolved = new ConcurrentHashMap<>();
+    /** Last result per player and placeholder, valid while the stamp it was computed under still matches. */
+    private final Map<UUID, Map<Placeholder, CachedValue>> results = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    /** Rendered tag, tab header and footer per clan or player name; cleared on reload, footers also on quit. */
+    private final Map<String, String> tags = new ConcurrentHashMap<>();
+    private final Map<String, String> headers = new ConcurrentHashMap<>();
+    private final Map<String, String> footers = new ConcurrentHashMap<>();
 
     public ClanPlaceholderExpansion(ClanService clanService, Object plugin) {
         this.clanService = clanService;
         this.plugin = plugin;
+        registerHandlers();
+    }
+
+    /**
+     * Drops results rendered from the previous settings; call after the settings snapshot was replaced.
+     */
+    public void reload() {
+        tags.clear();
+        headers.clear();
+        footers.clear();
+        results.clear();
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        results.remove(event.getPlayer().getUniqueId());
+        footers.remove(event.getPlayer().getName());
+    }
+
+    public long getCacheHits() {
+        return hits.sum();
+    }
+
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached results across all players.
+     */
+    public int getCachedResults() {
+        int size = 0;
+        for (Map<Placeholder, CachedValue> own : results.values()) {
+            size += own.size();
+        }
+        return size;
     }
 
     @Override
@@ -46,129 +130,250 @@ public class ClanPlaceholderExpansion extends PlaceholderExpansion {
     @Override
     public String onPlaceholderRequest(Player player, String params) {
         if (player == null) return "";
-        var clan = clanService.getClanOrNull(player.getUniqueId());
-        switch (params.toLowerCase()) {
-            case "name":
-                return clan == null ? "" : clan.getName();
-            case "level":
-                return clan == null ? "0" : String.valueOf(clan.getLevel());
-            case "xp":
-                return clan == null ? "0" : String.valueOf(clan.getXp());
-            case "xp_needed":
-                return clan == null ? "0" : String.valueOf(clanService.getXpToNext(clan));
-            case "members":
-                return clan == null ? "0" : String.valueOf(clan.getMembers().size());
-            case "leader":
-                return clan == null ? "" : clanService.getLeaderName(clan);
-            case "coins":
-                return clan == null ? "0" : String.valueOf(clan.getCoins());
-            case "points":
-                return clan == null ? "0" : String.valueOf(clan.getPoints());
-            case "friendlyfire":
-                return clan == null ? "false" : String.valueOf(clan.isFriendlyFire());
-            case "home_set":
-                return clan == null ? "false" : String.valueOf(!clan.getHome().isEmpty());
-            case "allies":
-                return clan == null ? "0" : String.valueOf(clan.getAllies().size());
-            case "enemies":
-                return clan == null ? "0" : String.valueOf(clan.getEnemies().size());
-            case "rank":
-                return clan == null ? "" : clanService.getRank(player.getUniqueId()).name();
-            case "prefix":
-                return clan == null ? "" : clan.getPrefix();
-            case "top_name":
-                var top = clanService.topFirst();
-                return top == null ? "" : top.getName();
-            case "top_level":
-                var topLevelClan = clanService.topFirst();
-                return topLevelClan == null ? "0" : String.valueOf(topLevelClan.getLevel());
-            case "player_points":
-                return clan == null ? "0" : String.valueOf(clan.getPlayerPoints().getOrDefault(player.getUniqueId(), 0.0));
-            case "ally_list":
-                return clan == null ? "" : String.join(", ", clan.getAllies());
-            case "enemy_list":
-                return clan == null ? "" : String.join(", ", clan.getEnemies());
-            case "bonus_privilege":
-                var bonus = clanService.getPlugin().getBonusService().getBonus(clan != null ? clan.getLevel() : 0);
-                return bonus.getPrivilege();
-            case "bonus_coins":
-                var bonusCoins = clanService.getPlugin().getBonusService().getBonus(clan != null ? clan.getLevel() : 0);
-                return String.valueOf(bonusCoins.getCoins());
-            case "bonus_xp":
-                var bonusXp = clanService.getPlugin().getBonusService().getBonus(clan != null ? clan.getLevel() : 0);
-                return String.valueOf(bonusXp.getXp());
-            case "kills":
-                return clan == null ? "0" : String.valueOf(clan.getKills().getOrDefault(player.getUniqueId(), 0));
-            case "deaths":
-                return clan == null ? "0" : String.valueOf(clan.getDeaths().getOrDefault(player.getUniqueId(), 0));
-            case "kd":
-                int k = clan == null ? 0 : clan.getKills().getOrDefault(player.getUniqueId(), 0);
-                int d = clan == null ? 0 : clan.getDeaths().getOrDefault(player.getUniqueId(), 0);
-                return d == 0 ? String.valueOf(k) : String.format("%.2f", (double) k / d);
-            case "joindays":
-                long joinAt = clan == null ? 0L : clan.getJoinAt().getOrDefault(player.getUniqueId(), 0L);
-                if (joinAt == 0) return "0";
-                long days = (System.currentTimeMillis() - joinAt) / (1000 * 60 * 60 * 24);
-                return String.valueOf(days);
-            // War placeholders
-            case "war_points":
-                return clan == null ? "0" : String.valueOf(clan.getWarPoints());
-            case "wins":
-                return clan == null ? "0" : String.valueOf(clan.getWins());
-            case "losses":
-                return clan == null ? "0" : String.valueOf(clan.getLosses());
-            case "title":
-                return clan == null ? "" : clan.getTitle();
-            case "motd":
-                return clan == null ? "" : clan.getMotd();
-            case "active_wars":
-                return clan == null ? "0" : String.valueOf(clan.getActiveWars().size());
-            case "achievements":
-                return clan == null ? "0" : String.valueOf(clan.getAchievements().size());
-            case "daily_kills":
-                return clan == null ? "0" : String.valueOf(clan.getDailyKills().getOrDefault(player.getUniqueId(), 0));
-            case "description":
-                return clan == null ? "" : clan.getDescription();
-            case "war_kills":
-                if (clan == null || clan.getActiveWars().isEmpty()) return "0";
-                return clan.getActiveWars().values().stream()
-                        .mapToInt(w -> w.isActive() ? w.getKillsClan1() : 0)
-                        .sum() + "";
-            case "activity":
-                return clan == null ? "Unknown" : clanService.getActivityStatus(clan);
-            // Tab placeholders
-            case "tab_header":
-                return clan == null ? "" : clanService.getPlugin().getConfig().getString("tab.header", "&#ff4faf✦ &fClan: &d{clan}").replace("{clan}", clan.getName());
-            case "tab_footer":
-                return clan == null ? "" : clanService.getPlugin().getConfig().getString("tab.footer", "&#5fd9ff✦ &fPlayer: &b{player}").replace("{player}", player.getName());
-            case "online_members":
-                if (clan == null) return "0";
-                long online = clan.getMembers().keySet().stream()
-                        .filter(uuid -> player.getServer().getPlayer(uuid) != null)
-                        .count();
-                return String.valueOf(online);
-            case "max_members":
-                return String.valueOf(clanService.getPlugin().getConfig().getInt("limits.max-members", 20));
-            case "next_level":
-                return clan == null ? "1" : String.valueOf(clan.getLevel() + 1);
-            case "xp_progress":
-                if (clan == null) return "0";
-                double xpNeeded = clanService.getXpToNext(clan);
-                double currentXp = clan.getXp() % clanService.getXpForLevel(clan.getLevel());
-                return String.valueOf((int)currentXp);
-            case "xp_needed_next":
-                if (clan == null) return "0";
-                return String.valueOf((int)clanService.getXpForLevel(clan.getLevel() + 1));
-            case "war_status":
-                if (clan == null) return "none";
-                if (!clan.getActiveWars().isEmpty()) return "war";
-                return "peace";
-            case "clan_tag":
-                if (clan == null) return "";
-                String tagFormat = clanService.getPlugin().getConfig().getString("display.tag-format", "&7[&#ff4faf{clan}&7] ");
-                return tagFormat.replace("{clan}", clan.getName());
+        UUID uuid = player.getUniqueId();
+        Clan clan = clanService.getClanOrNull(uuid);
+        Placeholder placeholder = resolved.get(params);
+        if (placeholder == null) {
+            placeholder = resolve(params);
+            if (resolved.size() >= MAX_RESOLVED) {
+                // Parsed handlers are new instances each time, so caching their result would grow the player's map
+                misses.increment();
+                return placeholder.handler().apply(player, clan);
+            }
+            resolved.put(params, placeholder);
+        }
+        // Read the stamp before computing, so a change racing with the computation invalidates the result
+        long stamp = placeholder.scope() == Scope.GLOBAL ? clanService.getGlobalVersion()
+                : clan == null ? 0 : clan.getVersion();
+        long now = placeholder.ttlMillis() > 0 ? System.currentTimeMillis() : 0;
+        Map<Placeholder, CachedValue> own = results.computeIfAbsent(uuid, id -> new ConcurrentHashMap<>());
+        CachedValue cached = own.get(placeholder);
+        if (cached != null && cached.clan() == clan && cached.stamp() == stamp
+                && (placeholder.ttlMillis() == 0 || now < cached.expiresAt())) {
+            hits.increment();
+            return cached.value();
+        }
+        misses.increment();
+        String value = placeholder.handler().apply(player, clan);
+        own.put(placeholder, new CachedValue(clan, stamp, now + placeholder.ttlMillis(), value));
+        return value;
+    }
+
+    /**
+     * Relational placeholders, {@code %rel_clanmaster_relation%} and {@code %rel_clanmaster_color%}, seen from
+     * {@code one} looking at {@code two}. Called for every pair of online players, so nothing here allocates.
+     */
+    @Override
+    public String onPlaceholderRequest(Player one, Player two, String identifier) {
+        if (one == null || two == null) return "";
+        ClanRelation relation = clanService.getRelation(one.getUniqueId(), two.getUniqueId());
+        if (identifier.equalsIgnoreCase("relation")) {
+            return relation.getId();
+        }
+        if (identifier.equalsIgnoreCase("color")) {
+            return settings().relationColor(relation);
+        }
+        return "";
+    }
+
+    private Placeholder resolve(String params) {
+        String key = params.toLowerCase(Locale.ROOT);
+        Placeholder placeholder = handlers.get(key);
+        return placeholder != null ? placeholder : leaderboardHandler(key);
+    }
+
+    /**
+     * Registers a placeholder whose value only depends on the player and their clan's stored data.
+     */
+    private void register(String name, PlaceholderHandler handler) {
+        register(name, Scope.CLAN, 0, handler);
+    }
+
+    private void register(String name, Scope scope, long ttlMillis, PlaceholderHandler handler) {
+        handlers.put(name, new Placeholder(handler, scope, ttlMillis));
+    }
+
+    private void registerHandlers() {
+        register("name", (player, clan) -> clan == null ? "" : clan.getName());
+        register("level", (player, clan) -> clan == null ? "0" : number(clan.getLevel()));
+        register("xp", (player, clan) -> clan == null ? "0" : String.valueOf(clan.getXp()));
+        register("xp_needed", (player, clan) -> clan == null ? "0"
+                : String.valueOf(Math.max(0, settings().xpPerLevel() * clan.getLevel() - clan.getXp())));
+        register("members", (player, clan) -> clan == null ? "0" : number(clan.getMembers().size()));
+        register("leader", (player, clan) -> clan == null ? "" : clanService.getLeaderName(clan));
+        register("coins", (player, clan) -> clan == null ? "0" : String.valueOf(clan.getCoins()));
+        register("points", (player, clan) -> clan == null ? "0" : String.valueOf(clan.getPoints()));
+        register("friendlyfire", (player, clan) -> clan == null ? "false" : String.valueOf(clan.isFriendlyFire()));
+        register("home_set", (player, clan) -> clan == null ? "false" : String.valueOf(!clan.getHome().isEmpty()));
+        register("allies", (player, clan) -> clan == null ? "0" : number(clan.getAllies().size()));
+        register("enemies", (player, clan) -> clan == null ? "0" : number(clan.getEnemies().size()));
+        register("rank", (player, clan) -> clan == null ? "" : clanService.getRank(player.getUniqueId()).name());
+        register("prefix", (player, clan) -> clan == null ? "" : clan.getPrefix());
+        register("top_name", Scope.GLOBAL, 0, (player, clan) -> {
+            Clan top = clanService.topFirst();
+            return top == null ? "" : top.getName();
+        });
+        register("top_level", Scope.GLOBAL, 0, (player, clan) -> {
+            Clan top = clanService.topFirst();
+            return top == null ? "0" : number(top.getLevel());
+        });
+        register("player_points", (player, clan) -> clan == null ? "0"
+                : String.valueOf(clan.getPlayerPoints().getOrDefault(player.getUniqueId(), 0.0)));
+        register("ally_list", (player, clan) -> clan == null ? "" : String.join(", ", clan.getAllies()));
+        register("enemy_list", (player, clan) -> clan == null ? "" : String.join(", ", clan.getEnemies()));
+        register("bonus_privilege", (player, clan) -> clanService.getPlugin().getBonusService()
+                .getBonus(clan != null ? clan.getLevel() : 0).getPrivilege());
+        register("bonus_coins", (player, clan) -> String.valueOf(clanService.getPlugin().getBonusService()
+                .getBonus(clan != null ? clan.getLevel() : 0).getCoins()));
+        register("bonus_xp", (player, clan) -> String.valueOf(clanService.getPlugin().getBonusService()
+                .getBonus(clan != null ? clan.getLevel() : 0).getXp()));
+        register("kills", (player, clan) -> clan == null ? "0"
+                : number(clan.getKills().getOrDefault(player.getUniqueId(), 0)));
+        register("deaths", (player, clan) -> clan == null ? "0"
+                : number(clan.getDeaths().getOrDefault(player.getUniqueId(), 0)));
+        register("kd", (player, clan) -> {
+            int k = clan == null ? 0 : clan.getKills().getOrDefault(player.getUniqueId(), 0);
+            int d = clan == null ? 0 : clan.getDeaths().getOrDefault(player.getUniqueId(), 0);
+            return d == 0 ? number(k) : twoDecimals((double) k / d);
+        });
+        register("joindays", Scope.CLAN, TIME_TTL, (player, clan) -> {
+            long joinAt = clan == null ? 0L : clan.getJoinAt().getOrDefault(player.getUniqueId(), 0L);
+            if (joinAt == 0) return "0";
+            return number((System.currentTimeMillis() - joinAt) / (1000 * 60 * 60 * 24));
+        });
+        // War placeholders
+        register("war_points", (player, clan) -> clan == null ? "0" : number(clan.getWarPoints()));
+        register("wins", (player, clan) -> clan == null ? "0" : number(clan.getWins()));
+        register("losses", (player, clan) -> clan == null ? "0" : number(clan.getLosses()));
+        register("title", (player, clan) -> clan == null ? "" : clan.getTitle());
+        register("motd", (player, clan) -> clan == null ? "" : clan.getMotd());
+        register("active_wars", (player, clan) -> clan == null ? "0" : number(clan.getActiveWars().size()));
+        register("achievements", (player, clan) -> clan == null ? "0" : number(clan.getAchievements().size()));
+        register("daily_kills", (player, clan) -> clan == null ? "0"
+                : number(clan.getDailyKills().getOrDefault(player.getUniqueId(), 0)));
+        register("description", (player, clan) -> clan == null ? "" : clan.getDescription());
+        register("war_kills", (player, clan) -> {
+            if (clan == null || clan.getActiveWars().isEmpty()) return "0";
+            int kills = 0;
+            for (Clan.War war : clan.getActiveWars().values()) {
+                if (war.isActive()) {
+                    kills += war.getKillsClan1();
+                }
+            }
+            return number(kills);
+        });
+        register("activity", Scope.CLAN, TIME_TTL, (player, clan) -> clan == null ? "Unknown" : clanService.getActivityStatus(clan));
+        // Tab placeholders
+        register("tab_header", (player, clan) -> clan == null ? ""
+                : headers.computeIfAbsent(clan.getName(), name -> settings().tabHeader().replace("{clan}", name)));
+        register("tab_footer", (player, clan) -> clan == null ? ""
+                : footers.computeIfAbsent(player.getName(), name -> settings().tabFooter().replace("{player}", name)));
+        register("online_members", Scope.CLAN, ONLINE_TTL, (player, clan) -> {
+            if (clan == null) return "0";
+            int online = 0;
+            for (UUID uuid : clan.getMembers().keySet()) {
+                if (player.getServer().getPlayer(uuid) != null) {
+                    online++;
+                }
+            }
+            return number(online);
+        });
+        register("max_members", (player, clan) -> number(settings().maxMembers()));
+        register("next_level", (player, clan) -> clan == null ? "1" : number(clan.getLevel() + 1));
+        register("xp_progress", (player, clan) -> clan == null ? "0"
+                : number((int) (clan.getXp() % (settings().xpPerLevel() * clan.getLevel()))));
+        register("xp_needed_next", (player, clan) -> clan == null ? "0"
+                : number((int) (settings().xpPerLevel() * (clan.getLevel() + 1))));
+        register("war_status", (player, clan) -> {
+            if (clan == null) return "none";
+            return clan.getActiveWars().isEmpty() ? "peace" : "war";
+        });
+        register("clan_tag", (player, clan) -> clan == null ? ""
+                : tags.computeIfAbsent(clan.getName(), name -> settings().tagFormat().replace("{clan}", name)));
+    }
+
+    /**
+     * Parses {@code top_<metric>_<window>_<n>[_value]}, {@code position_<metric>_<window>} and
+     * {@code stat_<metric>_<window>}, e.g. {@code top_kills_weekly_1} or {@code position_warpoints_season}.
+     */
+    private Placeholder leaderboardHandler(String params) {
+        String[] parts = params.split("_");
+        if (parts.length < 3) {
+            return EMPTY;
+        }
+        ClanMetric metric = ClanMetric.parse(parts[1]);
+        StatWindow window = StatWindow.parse(parts[2]);
+        if (metric == null || window == null) {
+            return EMPTY;
+        }
+        // Rolling windows drift as buckets expire, and lifetime activity is shown relative to now
+        long ttl = window.isRolling() || metric == ClanMetric.ACTIVITY ? TIME_TTL : 0;
+        switch (parts[0]) {
+            case "top":
+                if (parts.length < 4) return EMPTY;
+                int rank;
+                try {
+                    rank = Integer.parseInt(parts[3]);
+                } catch (NumberFormatException ex) {
+                    return EMPTY;
+                }
+                if (rank < 1) return EMPTY;
+                boolean value = parts.length > 4 && parts[4].equals("value");
+                return new Placeholder((player, clan) -> {
+                    List<Clan> entry = clanService.getLeaderboards().top(metric, window, rank - 1, 1);
+                    if (entry.isEmpty()) return "";
+                    return value ? clanService.formatStat(entry.get(0), metric, window) : entry.get(0).getName();
+                }, Scope.GLOBAL, ttl);
+            case "position":
+                return new Placeholder((player, clan) -> clan == null ? "0"
+                        : number(clanService.getLeaderboards().rankOf(clan, metric, window)), Scope.GLOBAL, ttl);
+            case "stat":
+                return new Placeholder((player, clan) -> clan == null ? "0"
+                        : clanService.formatStat(clan, metric, window), Scope.CLAN, ttl);
             default:
-                return "";
+                return EMPTY;
         }
     }
+
+    private ClanMasterSettings settings() {
+        return clanService.getPlugin().getSettings();
+    }
+
+    private static String number(long value) {
+        return value >= 0 && value < SMALL_INTS.length ? SMALL_INTS[(int) value] : Long.toString(value);
+    }
+
+    /**
+     * Same output as {@code %.2f} for the non-negative ratios used here, without going through the formatter.
+     */
+    private static String twoDecimals(double value) {
+        long hundredths = Math.round(value * 100);
+        long cents = hundredths % 100;
+        return (hundredths / 100) + (cents < 10 ? ".0" : ".") + cents;
+    }
+
+    /**
+     * Resolves one placeholder for a player and their clan, which may be null.
+     */
+    @FunctionalInterface
+    private interface PlaceholderHandler {
+        String apply(Player player, Clan clan);
+    }
+
+    /**
+     * What a cached value depends on: the player's own clan, or the data of every clan (rankings).
+     */
+    private enum Scope {
+        CLAN,
+        GLOBAL
+    }
+
+    /**
+     * A resolved placeholder with its cache policy; a TTL of 0 means the value only changes with the stamp.
+     */
+    private record Placeholder(PlaceholderHandler handler, Scope scope, long ttlMillis) {
+    }
+
+    private record CachedValue(Clan clan, long stamp, long expiresAt, String value) {
+    }
 }
@@ -0,0 +1,60 @@
+package com.clanmaster.service;
+
+import java.util.Arrays;
+
+/**
+ * Rolling sum over a fixed number of equally sized time buckets. Adding and reading are O(1) amortized: buckets are
+ * only cleared as time moves past them, and the running total is adjusted instead of summed again.
+ */
+public class BucketCounter {
+
+    private final long bucketMillis;
+    private final double[] buckets;
+    private long head;
+    private double total;
+
+    public BucketCounter(long bucketMillis, int size) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new double[size];
+    }
+
+    public void add(long now, double amount) {
+        advance(now);
+        buckets[(int) (head % buckets.length)] += amount;
+        total += amount;
+    }
+
+    public double total(long now) {
+        advance(now);
+        return total;
+    }
+
+    /**
+     * Returns the index of the bucket covering the given time.
+     */
+    public long bucketOf(long now) {
+        return now / bucketMillis;
+    }
+
+    public boolean matches(long bucketMillis, int size) {
+        return this.bucketMillis == bucketMillis && buckets.length == size;
+    }
+
+    private void advance(long now) {
+        long current = now / bucketMillis;
+        if (current <= head) {
+            return;
+        }
+        if (current - head >= buckets.length) {
+            Arrays.fill(buckets, 0);
+            total = 0;
+        } else {
+            for (long b = head + 1; b <= current; b++) {
+                int slot = (int) (b % buckets.length);
+                total -= buckets[slot];
+                buckets[slot] = 0;
+            }
+        }
+        head = current;
+    }
+}
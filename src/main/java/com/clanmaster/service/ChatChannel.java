@@ -0,0 +1,42 @@
+package com.clanmaster.service;
+
+import java.util.Locale;
+
+/**
+ * Private chat channels a clan member can route their chat into.
+ */
+public enum ChatChannel {
+    CLAN("clan"),
+    ALLY("ally"),
+    OFFICER("officer");
+
+    private final String id;
+
+    ChatChannel(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the language key of this channel's message format.
+     */
+    public String getFormatKey() {
+        return "chat." + id;
+    }
+
+    /**
+     * Resolves a channel from its id, or null if unknown.
+     */
+    public static ChatChannel parse(String id) {
+        String key = id.toLowerCase(Locale.ROOT);
+        for (ChatChannel channel : values()) {
+            if (channel.id.equals(key)) {
+                return channel;
+            }
+        }
+        return null;
+    }
+}
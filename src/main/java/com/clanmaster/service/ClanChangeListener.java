@@ -0,0 +1,14 @@
+package com.clanmaster.service;
+
+import com.clanmaster.model.Clan;
+
+/**
+ * Notified whenever a clan's state changes: members, stats, wars, coins, settings, online members or deletion.
+ * Called on the thread that made the change, possibly many times per tick, so implementations should only record the
+ * clan and do the work later.
+ */
+@FunctionalInterface
+public interface ClanChangeListener {
+
+    void onChanged(Clan clan);
+}
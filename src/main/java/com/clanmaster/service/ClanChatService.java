@@ -0,0 +1,143 @@
+package com.clanmaster.service;
+
+import com.clanmaster.ClanMasterPlugin;
+import com.clanmaster.model.Clan;
+import com.clanmaster.model.ClanMember;
+import com.clanmaster.model.ClanRank;
+import com.clanmaster.util.MessageResolver;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Delivers clan, ally and officer chat. Recipients come from the clans' online member sets, so a message never looks
+ * players up, and it is rendered once per language in the audience. Spy copies are queued and sent to each spy in one
+ * batch every few ticks. Safe to call from the async chat thread.
+ */
+public class ClanChatService {
+
+    private static final long SPY_FLUSH_TICKS = 10L;
+
+    private final ClanMasterPlugin plugin;
+    private final ClanService clanService;
+    private final MessageResolver messages;
+    private final Queue<SpyLine> spyQueue = new ConcurrentLinkedQueue<>();
+
+    public ClanChatService(ClanMasterPlugin plugin, ClanService clanService, MessageResolver messages) {
+        this.plugin = plugin;
+        this.clanService = clanService;
+        this.messages = messages;
+    }
+
+    /**
+     * Starts the task that delivers queued spy lines.
+     */
+    public void start() {
+        Bukkit.getScheduler().runTaskTimer(plugin, this::flushSpies, SPY_FLUSH_TICKS, SPY_FLUSH_TICKS);
+    }
+
+    /**
+     * Returns whether the player's rank allows them to talk in a channel.
+     */
+    public boolean canUse(Player player, ChatChannel channel) {
+        Clan clan = clanService.getClanOrNull(player.getUniqueId());
+        if (clan == null) {
+            return false;
+        }
+        if (channel != ChatChannel.OFFICER) {
+            return true;
+        }
+        ClanMember member = clan.getMembers().get(player.getUniqueId());
+        return member != null && member.getRank() != ClanRank.MEMBER;
+    }
+
+    /**
+     * Sends a message to a channel.
+     *
+     * @return false if the sender is not in a clan or may not use the channel
+     */
+    public boolean send(Player sender, ChatChannel channel, String message) {
+        if (!canUse(sender, channel)) {
+            return false;
+        }
+        Clan clan = clanService.getClanOrNull(sender.getUniqueId());
+        if (clan == null) {
+            return false;
+        }
+        Collection<Player> audience = audience(clan, channel);
+        messages.send(audience, channel.getFormatKey(),
+                "{clan}", clan.getName(), "{player}", sender.getName(), "{message}", message);
+        if (!clanService.getSpyViewers().isEmpty()) {
+            spyQueue.add(new SpyLine(messages.format("chat.spy", "{channel}", channel.getId(), "{clan}",
+                    clan.getName(), "{player}", sender.getName(), "{message}", message), audience));
+        }
+        return true;
+    }
+
+    private Collection<Player> audience(Clan clan, ChatChannel channel) {
+        Collection<Player> online = clanService.getOnlineMembers(clan);
+        switch (channel) {
+            case OFFICER: {
+                List<Player> officers = new ArrayList<>();
+                for (Player player : online) {
+                    ClanMember member = clan.getMembers().get(player.getUniqueId());
+                    if (member != null && member.getRank() != ClanRank.MEMBER) {
+                        officers.add(player);
+                    }
+                }
+                return officers;
+            }
+            case ALLY: {
+                List<Player> recipients = new ArrayList<>(online);
+                for (String allyName : clan.getAllies()) {
+                    Clan ally = clanService.getClanByName(allyName).orElse(null);
+                    // An ally that is also an enemy or at war does not share the channel
+                    if (ally != null && clanService.getRelations().relation(clan, ally) == ClanRelation.ALLY) {
+                        recipients.addAll(clanService.getOnlineMembers(ally));
+                    }
+                }
+                return recipients;
+            }
+            case CLAN:
+            default:
+                return online;
+        }
+    }
+
+    private void flushSpies() {
+        if (spyQueue.isEmpty()) {
+            return;
+        }
+        List<SpyLine> lines = new ArrayList<>();
+        for (SpyLine line = spyQueue.poll(); line != null; line = spyQueue.poll()) {
+            lines.add(line);
+        }
+        for (UUID spyId : clanService.getSpyViewers()) {
+            Player spy = Bukkit.getPlayer(spyId);
+            if (spy == null || !spy.isOnline()) {
+                continue;
+            }
+            List<String> unseen = new ArrayList<>(lines.size());
+            for (SpyLine line : lines) {
+                if (!line.audience().contains(spy)) {
+                    unseen.add(line.text());
+                }
+            }
+            if (!unseen.isEmpty()) {
+                spy.sendMessage(unseen.toArray(new String[0]));
+            }
+        }
+    }
+
+    /**
+     * A rendered spy copy and the players who already received the original.
+     */
+    private record SpyLine(String text, Collection<Player> audience) {
+    }
+}
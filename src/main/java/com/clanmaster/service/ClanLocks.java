@@ -0,0 +1,91 @@
+package com.clanmaster.service;
+
+import com.clanmaster.model.Clan;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks guarding compound changes to a clan, so a check and the change that depends on it happen as one step
+ * whichever thread runs them. Clans are spread over a fixed set of locks by identity, which stays stable when a clan is
+ * renamed. Callers take either one clan's lock or, for changes spanning two clans, both through
+ * {@link #withLocks}, which always acquires stripes in index order so two such changes cannot deadlock.
+ */
+public class ClanLocks {
+
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public ClanLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the clan's lock and returns its result.
+     */
+    public <T> T withLock(Clan clan, Supplier<T> action) {
+        ReentrantLock lock = lockFor(clan);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the clan's lock.
+     */
+    public void run(Clan clan, Runnable action) {
+        ReentrantLock lock = lockFor(clan);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action while holding both clans' locks and returns its result. Either clan may be null, in which case
+     * only the other one is locked.
+     */
+    public <T> T withLocks(Clan first, Clan second, Supplier<T> action) {
+        if (first == null) {
+            return withLock(second, action);
+        }
+        if (second == null) {
+            return withLock(first, action);
+        }
+        int a = indexOf(first);
+        int b = indexOf(second);
+        if (a == b) {
+            return withLock(first, action);
+        }
+        ReentrantLock outer = stripes[Math.min(a, b)];
+        ReentrantLock inner = stripes[Math.max(a, b)];
+        outer.lock();
+        try {
+            inner.lock();
+            try {
+                return action.get();
+            } finally {
+                inner.unlock();
+            }
+        } finally {
+            outer.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Clan clan) {
+        return stripes[indexOf(clan)];
+    }
+
+    private int indexOf(Clan clan) {
+        int hash = System.identityHashCode(clan);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
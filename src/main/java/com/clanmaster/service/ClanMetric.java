@@ -0,0 +1,44 @@
+package com.clanmaster.service;
+
+import java.util.Locale;
+
+/**
+ * Values clans can be ranked by besides level.
+ */
+public enum ClanMetric {
+    KILLS("kills", "Kills"),
+    KDR("kdr", "K/D"),
+    BANK("bank", "Bank Points"),
+    WAR_POINTS("warpoints", "War Points"),
+    WINS("wins", "Wins"),
+    ACTIVITY("activity", "Activity");
+
+    private final String id;
+    private final String displayName;
+
+    ClanMetric(String id, String displayName) {
+        this.id = id;
+        this.displayName = displayName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Resolves a metric from its id, e.g. {@code warpoints}, or null if unknown.
+     */
+    public static ClanMetric parse(String id) {
+        String key = id.toLowerCase(Locale.ROOT).replace("_", "");
+        for (ClanMetric metric : values()) {
+            if (metric.id.equals(key)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.clanmaster.service;
+
+/**
+ * How two clans stand towards each other, from closest to most hostile.
+ */
+public enum ClanRelation {
+    SAME("same"),
+    ALLY("ally"),
+    NEUTRAL("neutral"),
+    ENEMY("enemy");
+
+    private final String id;
+
+    ClanRelation(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -1,7 +1,10 @@
 package com.clanmaster.service;
 
 import com.clanmaster.ClanMasterPlugin;
+import com.clanmaster.ClanMasterSettings;
 import com.clanmaster.data.ClanStorage;
+import com.clanmaster.data.SaveScheduler;
+import com.clanmaster.data.json.ClanJsonFormat;
 import com.clanmaster.model.Clan;
 import com.clanmaster.model.ClanMember;
 import com.clanmaster.model.ClanRank;
@@ -11,10 +14,14 @@ import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import com.clanmaster.util.Text;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Central service keeping clan state and enforcing rules.
@@ -25,10 +32,27 @@ public class ClanService {
     private final ClanStorage storage;
     private final MessageResolver messages;
     private final Economy economy;
+    private final SaveScheduler saveScheduler;
     private final Map<String, Clan> clans = new ConcurrentHashMap<>();
+    /** Reverse index from member to clan, kept in step with every roster change. */
+    private final Map<UUID, Clan> playerIndex = new ConcurrentHashMap<>();
+    /** Clans by level, then xp, kept current by {@link #markDirty(Clan)}. */
+    private final Leaderboard levelBoard = new Leaderboard(Clan::getLevel, Clan::getXp);
+    private final LeaderboardService leaderboards;
+    private final RelationIndex relations = new RelationIndex();
+    private final ProfileCache profiles;
+    /** Bumped on every change to any clan, for caches that depend on more than one clan. */
+    private final AtomicLong globalVersion = new AtomicLong();
     private final Map<UUID, String> pendingInvites = new ConcurrentHashMap<>();
-    private final Set<UUID> clanChatToggle = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, ChatChannel> chatChannels = new ConcurrentHashMap<>();
+    /** Online players of each clan, kept in step with joins, quits and roster changes. */
+    private final Map<Clan, Set<Player>> onlineMembers = new ConcurrentHashMap<>();
     private final Set<UUID> spyToggle = ConcurrentHashMap.newKeySet();
+    private final List<ClanChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final ClanLocks locks = new ClanLocks();
+    private final Object pendingLock = new Object();
+    private Set<Clan> dirtyClans = new HashSet<>();
+    private Set<String> deletedClans = new HashSet<>();
 
     /**
      * Constructs the service and loads data.
@@ -38,26 +62,49 @@ public class ClanService {
         this.storage = storage;
         this.messages = messages;
         this.economy = economy;
-        this.clans.putAll(storage.loadAll());
+        this.profiles = new ProfileCache(plugin, new File(plugin.getDataFolder(), "profiles.dat"));
+        profiles.load();
+        long loadStart = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        for (Clan clan : storage.loadAll().values()) {
+            this.clans.put(clan.getName().toLowerCase(Locale.ROOT), clan);
+        }
+        buildPlayerIndex();
+        clans.values().forEach(levelBoard::update);
+        this.leaderboards = new LeaderboardService(new File(plugin.getDataFolder(), "stats.json"),
+                plugin.getConfig().getInt("stats.season-days", 30), plugin.getLogger());
+        leaderboards.load(clans.values());
+        long allocated = allocatedBytes() - allocatedBefore;
+        plugin.getLogger().info(String.format("Loaded %d clans in %.1f ms%s.", clans.size(),
+                (System.nanoTime() - loadStart) / 1_000_000.0,
+                allocatedBefore < 0 ? "" : String.format(", %.1f MB allocated", allocated / 1048576.0)));
+        this.saveScheduler = new SaveScheduler(this::save,
+                plugin.getConfig().getLong("storage.flush.debounce-ms", 500L),
+                plugin.getConfig().getLong("storage.flush.min-interval-ms", 2000L),
+                plugin.getConfig().getInt("storage.flush.max-pending", 500),
+                plugin.getLogger());
         startAutoSave();
         startDailyReset();
     }
 
     /**
-     * Creates a new clan if name free and leader not already in clan.
+     * Creates a new clan if name free and leader not already in clan. The name and the leader are each claimed
+     * atomically, and the name is released again if the leader turns out to be taken.
      */
     public boolean createClan(String name, UUID leaderId) {
-        if (clans.containsKey(name.toLowerCase(Locale.ROOT))) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Clan clan = new Clan(name);
+        clan.getMembers().put(leaderId, new ClanMember(leaderId, ClanRank.LEADER));
+        clan.getJoinAt().put(leaderId, System.currentTimeMillis());
+        if (clans.putIfAbsent(key, clan) != null) {
             return false;
         }
-        if (getClanByPlayer(leaderId).isPresent()) {
+        if (playerIndex.putIfAbsent(leaderId, clan) != null) {
+            clans.remove(key, clan);
             return false;
         }
-        Clan clan = new Clan(name);
-        clan.getMembers().put(leaderId, new ClanMember(leaderId, ClanRank.LEADER));
-        clan.getJoinAt().put(leaderId, System.currentTimeMillis());
-        clans.put(name.toLowerCase(Locale.ROOT), clan);
-        saveAsync();
+        joinedRoster(leaderId, clan);
+        saveAsync(clan);
         return true;
     }
 
@@ -65,10 +112,22 @@ public class ClanService {
      * Deletes clan by name.
      */
     public boolean deleteClan(String name) {
-        if (!clans.containsKey(name.toLowerCase(Locale.ROOT))) {
+        Clan removed = clans.remove(name.toLowerCase(Locale.ROOT));
+        if (removed == null) {
             return false;
         }
-        clans.remove(name.toLowerCase(Locale.ROOT));
+        removed.getMembers().keySet().forEach(member -> {
+            playerIndex.remove(member, removed);
+            chatChannels.remove(member);
+        });
+        onlineMembers.remove(removed);
+        levelBoard.remove(removed);
+        leaderboards.remove(removed);
+        relations.remove(removed);
+        removed.bumpVersion();
+        globalVersion.incrementAndGet();
+        markDeleted(removed);
+        fireChanged(removed);
         saveAsync();
         return true;
     }
@@ -78,18 +137,29 @@ public class ClanService {
      */
     public boolean addMember(String clanName, UUID playerId) {
         Clan clan = clans.get(clanName.toLowerCase(Locale.ROOT));
-        if (clan == null || clan.getMembers().containsKey(playerId)) {
+        if (clan == null) {
             return false;
         }
-        int maxMembers = plugin.getConfig().getInt("limits.max-members", 20);
-        if (clan.getMembers().size() >= maxMembers) {
+        boolean added = locks.withLock(clan, () -> {
+            if (clan.getMembers().size() >= plugin.getSettings().maxMembers()) {
+                return false;
+            }
+            // Claims the player atomically, so two clans accepting them at once cannot both succeed
+            if (playerIndex.putIfAbsent(playerId, clan) != null) {
+                return false;
+            }
+            clan.getMembers().put(playerId, new ClanMember(playerId, ClanRank.MEMBER));
+            clan.getJoinAt().put(playerId, System.currentTimeMillis());
+            clan.setLastActivity(System.currentTimeMillis());
+            return true;
+        });
+        if (!added) {
             return false;
         }
-        clan.getMembers().put(playerId, new ClanMember(playerId, ClanRank.MEMBER));
-        clan.getJoinAt().put(playerId, System.currentTimeMillis());
-        clan.setLastActivity(System.currentTimeMillis());
+        joinedRoster(playerId, clan);
         pendingInvites.remove(playerId);
-        saveAsync();
+        saveAsync(clan);
+        leaderboards.recordActivity(clan);
         return true;
     }
 
@@ -111,13 +181,24 @@ public class ClanService {
      */
     public boolean kickMember(String clanName, UUID playerId) {
         Clan clan = clans.get(clanName.toLowerCase(Locale.ROOT));
-        if (clan == null || !clan.getMembers().containsKey(playerId)) {
+        if (clan == null) {
             return false;
         }
-        clan.getMembers().remove(playerId);
-        clan.getJoinAt().remove(playerId);
-        clan.setLastActivity(System.currentTimeMillis());
-        saveAsync();
+        boolean removed = locks.withLock(clan, () -> {
+            if (clan.getMembers().remove(playerId) == null) {
+                return false;
+            }
+            clan.getJoinAt().remove(playerId);
+            clan.setLastActivity(System.currentTimeMillis());
+            return true;
+        });
+        if (!removed) {
+            return false;
+        }
+        playerIndex.remove(playerId, clan);
+        leftRoster(playerId, clan);
+        chatChannels.remove(playerId);
+        saveAsync(clan);
         return true;
     }
 
@@ -130,17 +211,26 @@ public class ClanService {
             return false;
         }
         Clan clan = optional.get();
-        ClanMember member = clan.getMembers().get(playerId);
-        if (member.getRank() == ClanRank.LEADER && clan.getMembers().size() > 1) {
-            return false; // leader must transfer first
+        boolean left = locks.withLock(clan, () -> {
+            ClanMember member = clan.getMembers().get(playerId);
+            if (member == null || member.getRank() == ClanRank.LEADER && clan.getMembers().size() > 1) {
+                return false; // leader must transfer first
+            }
+            clan.getMembers().remove(playerId);
+            clan.getJoinAt().remove(playerId);
+            return true;
+        });
+        if (!left) {
+            return false;
         }
-        clan.getMembers().remove(playerId);
-        clan.getJoinAt().remove(playerId);
+        playerIndex.remove(playerId, clan);
+        leftRoster(playerId, clan);
+        chatChannels.remove(playerId);
         if (clan.getMembers().isEmpty()) {
             deleteClan(clan.getName());
         } else {
             clan.setLastActivity(System.currentTimeMillis());
-            saveAsync();
+            saveAsync(clan);
         }
         return true;
     }
@@ -150,16 +240,83 @@ public class ClanService {
     }
 
     public boolean toggleClanChat(UUID player) {
-        if (clanChatToggle.contains(player)) {
-            clanChatToggle.remove(player);
+        if (chatChannels.remove(player) != null) {
             return false;
         }
-        clanChatToggle.add(player);
+        chatChannels.put(player, ChatChannel.CLAN);
         return true;
     }
 
     public boolean isClanChat(UUID player) {
-        return clanChatToggle.contains(player);
+        return chatChannels.containsKey(player);
+    }
+
+    /**
+     * Returns the channel the player's chat is routed into, or null for public chat.
+     */
+    public ChatChannel getChatChannel(UUID player) {
+        return chatChannels.get(player);
+    }
+
+    /**
+     * Routes the player's chat into a channel; null returns them to public chat.
+     */
+    public void setChatChannel(UUID player, ChatChannel channel) {
+        if (channel == null) {
+            chatChannels.remove(player);
+        } else {
+            chatChannels.put(player, channel);
+        }
+    }
+
+    /**
+     * Returns the online members of a clan as a live, read-only view. The clan's version changes whenever a member
+     * comes online or goes offline.
+     */
+    public Collection<Player> getOnlineMembers(Clan clan) {
+        Set<Player> online = onlineMembers.get(clan);
+        return online == null ? Collections.emptySet() : Collections.unmodifiableSet(online);
+    }
+
+    /**
+     * Adds a player who just joined the server to their clan's online set.
+     */
+    public void trackOnline(Player player) {
+        Clan clan = playerIndex.get(player.getUniqueId());
+        if (clan != null) {
+            onlineMembers.computeIfAbsent(clan, key -> ConcurrentHashMap.newKeySet()).add(player);
+            clan.bumpVersion();
+            fireChanged(clan);
+        }
+    }
+
+    /**
+     * Removes a player who left the server from their clan's online set.
+     */
+    public void trackOffline(Player player) {
+        Clan clan = playerIndex.get(player.getUniqueId());
+        leftRoster(player.getUniqueId(), clan);
+        if (clan != null) {
+            clan.bumpVersion();
+            fireChanged(clan);
+        }
+    }
+
+    private void joinedRoster(UUID playerId, Clan clan) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null && player.isOnline()) {
+            onlineMembers.computeIfAbsent(clan, key -> ConcurrentHashMap.newKeySet()).add(player);
+        }
+    }
+
+    private void leftRoster(UUID playerId, Clan clan) {
+        if (clan == null) {
+            return;
+        }
+        Set<Player> online = onlineMembers.get(clan);
+        if (online != null) {
+            online.removeIf(player -> player.getUniqueId().equals(playerId));
+        }
     }
 
     public boolean toggleSpy(UUID player) {
@@ -184,21 +341,28 @@ public class ClanService {
             return false;
         }
         Clan clan = optional.get();
-        ClanMember actor = clan.getMembers().get(actorId);
-        ClanMember target = clan.getMembers().get(targetId);
-        if (target == null || actor == null) {
-            return false;
-        }
-        if (!actor.getRank().canManage(target.getRank())) {
+        // Ranks are checked and changed in one step, so two officers acting at once cannot both win
+        boolean changed = locks.withLock(clan, () -> {
+            ClanMember actor = clan.getMembers().get(actorId);
+            ClanMember target = clan.getMembers().get(targetId);
+            if (target == null || actor == null) {
+                return false;
+            }
+            if (!actor.getRank().canManage(target.getRank())) {
+                return false;
+            }
+            if (target.getRank() == ClanRank.MEMBER) {
+                target.setRank(ClanRank.OFFICER);
+            } else if (target.getRank() == ClanRank.OFFICER && actor.getRank() == ClanRank.LEADER) {
+                target.setRank(ClanRank.LEADER);
+                actor.setRank(ClanRank.OFFICER);
+            }
+            return true;
+        });
+        if (!changed) {
             return false;
         }
-        if (target.getRank() == ClanRank.MEMBER) {
-            target.setRank(ClanRank.OFFICER);
-        } else if (target.getRank() == ClanRank.OFFICER && actor.getRank() == ClanRank.LEADER) {
-            target.setRank(ClanRank.LEADER);
-            actor.setRank(ClanRank.OFFICER);
-        }
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
@@ -211,21 +375,27 @@ public class ClanService {
             return false;
         }
         Clan clan = optional.get();
-        ClanMember actor = clan.getMembers().get(actorId);
-        ClanMember target = clan.getMembers().get(targetId);
-        if (target == null || actor == null || actor == target) {
-            return false;
-        }
-        if (!actor.getRank().canManage(target.getRank())) {
-            return false;
-        }
-        if (target.getRank() == ClanRank.LEADER) {
+        boolean changed = locks.withLock(clan, () -> {
+            ClanMember actor = clan.getMembers().get(actorId);
+            ClanMember target = clan.getMembers().get(targetId);
+            if (target == null || actor == null || actor == target) {
+                return false;
+            }
+            if (!actor.getRank().canManage(target.getRank())) {
+                return false;
+            }
+            if (target.getRank() == ClanRank.LEADER) {
+                return false;
+            }
+            if (target.getRank() == ClanRank.OFFICER) {
+                target.setRank(ClanRank.MEMBER);
+            }
+            return true;
+        });
+        if (!changed) {
             return false;
         }
-        if (target.getRank() == ClanRank.OFFICER) {
-            target.setRank(ClanRank.MEMBER);
-        }
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
@@ -233,7 +403,28 @@ public class ClanService {
      * Returns clan containing player.
      */
     public Optional<Clan> getClanByPlayer(UUID playerId) {
-        return storage.findByPlayer(playerId, clans);
+        return Optional.ofNullable(playerIndex.get(playerId));
+    }
+
+    /**
+     * Fills the player index from the loaded clans. A player listed by several clans is indexed under the first one
+     * seen and reported, since commands would otherwise act on an arbitrary clan.
+     */
+    private void buildPlayerIndex() {
+        playerIndex.clear();
+        for (Clan clan : clans.values()) {
+            for (UUID member : clan.getMembers().keySet()) {
+                Clan previous = playerIndex.putIfAbsent(member, clan);
+                if (previous != null) {
+                    plugin.getLogger().warning("Player " + member + " is a member of both " + previous.getName()
+                            + " and " + clan.getName() + "; using " + previous.getName() + ".");
+                }
+            }
+        }
+        // Players already online after a reload never fire a join event
+        onlineMembers.clear();
+        Bukkit.getOnlinePlayers().forEach(this::trackOnline);
+        Bukkit.getOnlinePlayers().forEach(profiles::remember);
     }
 
     /**
@@ -260,28 +451,38 @@ public class ClanService {
     /**
      * Returns top clans sorted by level then xp.
      */
-    public Map<Integer, Clan> topByLevel() {
-        List<Clan> sorted = clans.values().stream()
-                .sorted(Comparator.comparingInt(Clan::getLevel).reversed()
-                        .thenComparingDouble(Clan::getXp).reversed())
-                .collect(Collectors.toList());
-        
+    public Map<Integer, Clan> topByLevel(int limit) {
+        List<Clan> top = levelBoard.top(limit);
         Map<Integer, Clan> result = new LinkedHashMap<>();
-        for (int i = 0; i < sorted.size(); i++) {
-            result.put(i + 1, sorted.get(i));
+        for (int i = 0; i < top.size(); i++) {
+            result.put(i + 1, top.get(i));
         }
         return result;
     }
 
+    /**
+     * Returns up to {@code limit} clans of the level ranking starting at the 0-based {@code offset}.
+     */
+    public List<Clan> topByLevel(int offset, int limit) {
+        return levelBoard.page(offset, limit);
+    }
+
+    /**
+     * Returns the 1-based level ranking position of the clan, or 0 if unknown.
+     */
+    public int getLevelRank(Clan clan) {
+        return levelBoard.rankOf(clan);
+    }
+
+    public int getClanCount() {
+        return clans.size();
+    }
+
     /**
      * Returns top clans by war points.
      */
     public Map<Integer, Clan> topByWarPoints() {
-        List<Clan> sorted = clans.values().stream()
-                .sorted(Comparator.comparingInt(Clan::getWarPoints).reversed())
-                .limit(10)
-                .collect(Collectors.toList());
-        
+        List<Clan> sorted = leaderboards.top(ClanMetric.WAR_POINTS, StatWindow.ALL, 0, 10);
         Map<Integer, Clan> result = new LinkedHashMap<>();
         for (int i = 0; i < sorted.size(); i++) {
             result.put(i + 1, sorted.get(i));
@@ -290,19 +491,16 @@ public class ClanService {
     }
 
     public Clan topFirst() {
-        return clans.values().stream()
-                .sorted(Comparator.comparingInt(Clan::getLevel).reversed()
-                        .thenComparingDouble(Clan::getXp).reversed())
-                .findFirst().orElse(null);
+        return levelBoard.get(1);
     }
 
     public double getXpToNext(Clan clan) {
-        double needed = plugin.getConfig().getDouble("progress.xp-per-level", 1000.0) * clan.getLevel();
+        double needed = plugin.getSettings().xpPerLevel() * clan.getLevel();
         return Math.max(0, needed - clan.getXp());
     }
 
     public double getXpForLevel(int level) {
-        return plugin.getConfig().getDouble("progress.xp-per-level", 1000.0) * level;
+        return plugin.getSettings().xpPerLevel() * level;
     }
 
     public ClanMasterPlugin getPlugin() {
@@ -311,7 +509,7 @@ public class ClanService {
 
     public String getLeaderName(Clan clan) {
         UUID id = getLeader(clan);
-        return id == null ? "" : Bukkit.getOfflinePlayer(id).getName();
+        return id == null ? "" : profiles.name(id, "Unknown");
     }
 
     public UUID getLeader(Clan clan) {
@@ -334,7 +532,7 @@ public class ClanService {
         if (clan == null) return false;
         if (!isLeader(actor, clan)) return false;
         clan.setPrefix(prefix);
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
@@ -342,9 +540,12 @@ public class ClanService {
         Clan clan = getClanOrNull(actor);
         if (clan == null) return false;
         if (!isLeader(actor, clan)) return false;
-        clan.setFriendlyFire(!clan.isFriendlyFire());
-        saveAsync();
-        return clan.isFriendlyFire();
+        boolean enabled = locks.withLock(clan, () -> {
+            clan.setFriendlyFire(!clan.isFriendlyFire());
+            return clan.isFriendlyFire();
+        });
+        saveAsync(clan);
+        return enabled;
     }
 
     public boolean setHome(UUID actor, String loc) {
@@ -352,7 +553,7 @@ public class ClanService {
         if (clan == null) return false;
         if (!isLeader(actor, clan)) return false;
         clan.setHome(loc);
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
@@ -361,7 +562,7 @@ public class ClanService {
         if (clan == null) return false;
         if (!isLeader(actor, clan)) return false;
         clan.setHome("");
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
@@ -374,42 +575,73 @@ public class ClanService {
     public boolean transfer(UUID actor, UUID target) {
         Clan clan = getClanOrNull(actor);
         if (clan == null) return false;
-        ClanMember actorMember = clan.getMembers().get(actor);
-        ClanMember targetMember = clan.getMembers().get(target);
-        if (actorMember == null || actorMember.getRank() != ClanRank.LEADER) return false;
-        if (targetMember == null) return false;
-        actorMember.setRank(ClanRank.OFFICER);
-        targetMember.setRank(ClanRank.LEADER);
-        saveAsync();
+        boolean transferred = locks.withLock(clan, () -> {
+            ClanMember actorMember = clan.getMembers().get(actor);
+            ClanMember targetMember = clan.getMembers().get(target);
+            if (actorMember == null || actorMember.getRank() != ClanRank.LEADER) return false;
+            if (targetMember == null) return false;
+            actorMember.setRank(ClanRank.OFFICER);
+            targetMember.setRank(ClanRank.LEADER);
+            return true;
+        });
+        if (!transferred) return false;
+        saveAsync(clan);
         return true;
     }
 
+    /**
+     * Moves money from the player into the clan bank. The payment and the credit happen as one step under the clan's
+     * lock, and the economy's own answer decides, so a balance spent elsewhere in the meantime cannot be credited.
+     */
     public boolean pointsDeposit(UUID actor, double amount, Economy eco) {
         Clan clan = getClanOrNull(actor);
         if (clan == null || amount <= 0) return false;
-        if (eco != null && !eco.has(Bukkit.getOfflinePlayer(actor), amount)) return false;
-        if (eco != null) eco.withdrawPlayer(Bukkit.getOfflinePlayer(actor), amount);
-        clan.setPoints(clan.getPoints() + amount);
-        clan.getPlayerPoints().merge(actor, amount, Double::sum);
-        saveAsync();
+        OfflinePlayer player = Bukkit.getOfflinePlayer(actor);
+        boolean ok = locks.withLock(clan, () -> {
+            if (eco != null && !eco.withdrawPlayer(player, amount).transactionSuccess()) return false;
+            clan.setPoints(clan.getPoints() + amount);
+            clan.getPlayerPoints().merge(actor, amount, Double::sum);
+            return true;
+        });
+        if (!ok) return false;
+        saveAsync(clan);
+        leaderboards.recordBank(clan, amount);
         return true;
     }
 
+    /**
+     * Pays money out of the clan bank to the player. The balance check and debit happen under the clan's lock, so
+     * concurrent withdrawals cannot overdraw it, and the debit is rolled back if the economy refuses the payment.
+     */
     public boolean pointsWithdraw(UUID actor, double amount, Economy eco) {
         Clan clan = getClanOrNull(actor);
-        if (clan == null || amount <= 0 || clan.getPoints() < amount) return false;
-        clan.setPoints(clan.getPoints() - amount);
-        if (eco != null) eco.depositPlayer(Bukkit.getOfflinePlayer(actor), amount);
-        saveAsync();
+        if (clan == null || amount <= 0) return false;
+        OfflinePlayer player = Bukkit.getOfflinePlayer(actor);
+        boolean ok = locks.withLock(clan, () -> {
+            if (clan.getPoints() < amount) return false;
+            clan.setPoints(clan.getPoints() - amount);
+            if (eco != null && !eco.depositPlayer(player, amount).transactionSuccess()) {
+                clan.setPoints(clan.getPoints() + amount);
+                return false;
+            }
+            return true;
+        });
+        if (!ok) return false;
+        saveAsync(clan);
+        leaderboards.recordBank(clan, -amount);
         return true;
     }
 
     public boolean allyAdd(UUID actor, String ally) {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
-        clan.getAllies().add(ally.toLowerCase(Locale.ROOT));
-        clan.getEnemies().remove(ally.toLowerCase(Locale.ROOT));
-        saveAsync();
+        String key = ally.toLowerCase(Locale.ROOT);
+        locks.run(clan, () -> {
+            clan.getAllies().add(key);
+            clan.getEnemies().remove(key);
+            clan.bumpRelationVersion();
+        });
+        saveAsync(clan);
         return true;
     }
 
@@ -417,16 +649,21 @@ public class ClanService {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
         clan.getAllies().remove(ally.toLowerCase(Locale.ROOT));
-        saveAsync();
+        clan.bumpRelationVersion();
+        saveAsync(clan);
         return true;
     }
 
     public boolean enemyAdd(UUID actor, String target) {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
-        clan.getEnemies().add(target.toLowerCase(Locale.ROOT));
-        clan.getAllies().remove(target.toLowerCase(Locale.ROOT));
-        saveAsync();
+        String key = target.toLowerCase(Locale.ROOT);
+        locks.run(clan, () -> {
+            clan.getEnemies().add(key);
+            clan.getAllies().remove(key);
+            clan.bumpRelationVersion();
+        });
+        saveAsync(clan);
         return true;
     }
 
@@ -434,26 +671,34 @@ public class ClanService {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
         clan.getEnemies().remove(target.toLowerCase(Locale.ROOT));
-        saveAsync();
+        clan.bumpRelationVersion();
+        saveAsync(clan);
         return true;
     }
 
     public boolean rename(UUID actor, String newName) {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
-        if (clans.containsKey(newName.toLowerCase(Locale.ROOT))) return false;
-        
-        // Remove old name and add with new name
-        String oldName = clan.getName().toLowerCase(Locale.ROOT);
-        clans.remove(oldName);
-        clans.put(newName.toLowerCase(Locale.ROOT), clan);
-        
-        // Update prefix if it matches old name
-        if (clan.getPrefix().equals(clan.getName())) {
-            clan.setPrefix(newName);
-        }
-        
-        saveAsync();
+
+        // Claim the new name before letting go of the old one, so a racing create or rename cannot take it as well;
+        // player index entries point at the clan itself and stay valid
+        String newKey = newName.toLowerCase(Locale.ROOT);
+        if (clans.putIfAbsent(newKey, clan) != null) return false;
+        String oldName = locks.withLock(clan, () -> {
+            String old = clan.getName();
+            // Update prefix if it matches old name
+            if (clan.getPrefix().equals(old)) {
+                clan.setPrefix(newName);
+            }
+            clan.setName(newName);
+            clan.bumpRelationVersion();
+            return old;
+        });
+        clans.remove(oldName.toLowerCase(Locale.ROOT), clan);
+
+        // Stored rows are keyed by name, so the old entry goes away and the clan is written under the new one
+        markDeletedName(oldName);
+        saveAsync(clan);
         return true;
     }
 
@@ -461,17 +706,23 @@ public class ClanService {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
         clan.setDescription(desc);
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
     public boolean setMotd(UUID actor, String motd) {
         Clan clan = getClanOrNull(actor);
         if (clan == null) return false;
-        ClanMember member = clan.getMembers().get(actor);
-        if (member == null || (member.getRank() != ClanRank.LEADER && member.getRank() != ClanRank.OFFICER)) return false;
-        clan.setMotd(motd);
-        saveAsync();
+        boolean ok = locks.withLock(clan, () -> {
+            ClanMember member = clan.getMembers().get(actor);
+            if (member == null || (member.getRank() != ClanRank.LEADER && member.getRank() != ClanRank.OFFICER)) {
+                return false;
+            }
+            clan.setMotd(motd);
+            return true;
+        });
+        if (!ok) return false;
+        saveAsync(clan);
         return true;
     }
 
@@ -479,7 +730,7 @@ public class ClanService {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
         clan.setTitle(title);
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
@@ -492,23 +743,30 @@ public class ClanService {
         if (enemyClan == null) return false;
         
         // Cannot declare war on yourself
-        if (clan.getName().equalsIgnoreCase(enemyClanName)) return false;
+        if (enemyClan == clan) return false;
 
-        // Check if already at war
-        if (clan.getActiveWars().containsKey(enemyClanName.toLowerCase(Locale.ROOT))) return false;
+        boolean declared = locks.withLocks(clan, enemyClan, () -> {
+            // Check if already at war
+            if (clan.getActiveWars().containsKey(enemyClanName.toLowerCase(Locale.ROOT))) return false;
 
-        // Check max wars
-        int maxWars = plugin.getConfig().getInt("limits.max-active-wars", 3);
-        if (clan.getActiveWars().size() >= maxWars) return false;
+            // Check max wars
+            if (clan.getActiveWars().size() >= plugin.getSettings().maxActiveWars()) return false;
 
-        // Create war for both clans
-        Clan.War war = new Clan.War(enemyClanName);
-        clan.getActiveWars().put(enemyClanName.toLowerCase(Locale.ROOT), war);
+            // Create war for both clans
+            Clan.War war = new Clan.War(enemyClanName);
+            clan.getActiveWars().put(enemyClanName.toLowerCase(Locale.ROOT), war);
 
-        Clan.War enemyWar = new Clan.War(clan.getName());
-        enemyClan.getActiveWars().put(clan.getName().toLowerCase(Locale.ROOT), enemyWar);
+            Clan.War enemyWar = new Clan.War(clan.getName());
+            enemyClan.getActiveWars().put(clan.getName().toLowerCase(Locale.ROOT), enemyWar);
+            clan.bumpRelationVersion();
+            enemyClan.bumpRelationVersion();
+            return true;
+        });
+        if (!declared) return false;
 
-        saveAsync();
+        markDirty(enemyClan);
+        saveAsync(clan);
+        leaderboards.recordActivity(clan);
         return true;
     }
 
@@ -516,26 +774,41 @@ public class ClanService {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
         
-        Clan.War war = clan.getActiveWars().remove(enemyClanName.toLowerCase(Locale.ROOT));
-        if (war == null) return false;
-        
         Clan enemyClan = clans.get(enemyClanName.toLowerCase(Locale.ROOT));
+        // Both sides' war entries and tallies change together, so a kill landing mid-way cannot split them
+        Optional<Clan> winner = locks.withLocks(clan, enemyClan, () -> {
+            Clan.War war = clan.getActiveWars().remove(enemyClanName.toLowerCase(Locale.ROOT));
+            if (war == null) return null;
+            clan.bumpRelationVersion();
+            if (enemyClan != null) {
+                enemyClan.getActiveWars().remove(clan.getName().toLowerCase(Locale.ROOT));
+                enemyClan.bumpRelationVersion();
+            }
+
+            // Determine winner
+            if (war.getKillsClan1() > war.getKillsClan2()) {
+                clan.setWins(clan.getWins() + 1);
+                clan.setWarPoints(clan.getWarPoints() + 100);
+                if (enemyClan != null) {
+                    enemyClan.setLosses(enemyClan.getLosses() + 1);
+                }
+                return Optional.of(clan);
+            }
+            if (war.getKillsClan2() > war.getKillsClan1() && enemyClan != null) {
+                enemyClan.setWins(enemyClan.getWins() + 1);
+                enemyClan.setWarPoints(enemyClan.getWarPoints() + 100);
+                clan.setLosses(clan.getLosses() + 1);
+                return Optional.of(enemyClan);
+            }
+            return Optional.empty();
+        });
+        if (winner == null) return false;
+        winner.ifPresent(won -> leaderboards.recordWarWin(won, 100));
+
         if (enemyClan != null) {
-            enemyClan.getActiveWars().remove(clan.getName().toLowerCase(Locale.ROOT));
-        }
-        
-        // Determine winner
-        if (war.getKillsClan1() > war.getKillsClan2()) {
-            clan.setWins(clan.getWins() + 1);
-            clan.setWarPoints(clan.getWarPoints() + 100);
-            enemyClan.setLosses(enemyClan.getLosses() + 1);
-        } else if (war.getKillsClan2() > war.getKillsClan1()) {
-            enemyClan.setWins(enemyClan.getWins() + 1);
-            enemyClan.setWarPoints(enemyClan.getWarPoints() + 100);
-            clan.setLosses(clan.getLosses() + 1);
+            markDirty(enemyClan);
         }
-        
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
@@ -543,58 +816,112 @@ public class ClanService {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
         
-        clan.getEnemies().remove(enemyClanName.toLowerCase(Locale.ROOT));
-        clan.getActiveWars().remove(enemyClanName.toLowerCase(Locale.ROOT));
-        
         Clan enemyClan = clans.get(enemyClanName.toLowerCase(Locale.ROOT));
+        locks.withLocks(clan, enemyClan, () -> {
+            clan.getEnemies().remove(enemyClanName.toLowerCase(Locale.ROOT));
+            clan.getActiveWars().remove(enemyClanName.toLowerCase(Locale.ROOT));
+            clan.bumpRelationVersion();
+            if (enemyClan != null) {
+                enemyClan.getEnemies().remove(clan.getName().toLowerCase(Locale.ROOT));
+                enemyClan.getActiveWars().remove(clan.getName().toLowerCase(Locale.ROOT));
+                enemyClan.bumpRelationVersion();
+            }
+            return null;
+        });
         if (enemyClan != null) {
-            enemyClan.getEnemies().remove(clan.getName().toLowerCase(Locale.ROOT));
-            enemyClan.getActiveWars().remove(clan.getName().toLowerCase(Locale.ROOT));
+            markDirty(enemyClan);
         }
         
-        saveAsync();
+        saveAsync(clan);
         return true;
     }
 
     public void recordKill(UUID killer, UUID victim) {
-        Clan killerClan = getClanOrNull(killer);
-        Clan victimClan = getClanOrNull(victim);
-        
-        if (killerClan != null) {
-            killerClan.getKills().merge(killer, 1, Integer::sum);
-            killerClan.setLastActivity(System.currentTimeMillis());
-            
-            // Daily kills tracking
-            checkDailyReset(killerClan);
-            killerClan.getDailyKills().merge(killer, 1, Integer::sum);
-            
-            // War kills
-            if (victimClan != null && killerClan.getActiveWars().containsKey(victimClan.getName().toLowerCase())) {
-                Clan.War war = killerClan.getActiveWars().get(victimClan.getName().toLowerCase());
-                if (war != null && war.isActive()) {
-                    war.setKillsClan1(war.getKillsClan1() + 1);
+        recordCombat(List.of(new KillRecord(killer, victim)));
+    }
+
+    public void recordDeath(UUID victim) {
+        recordCombat(List.of(new KillRecord(null, victim)));
+    }
+
+    /**
+     * Applies a batch of deaths: kills, deaths, daily and war kills, kill xp with the war bonus and the kill reward.
+     * Every touched clan is marked dirty once and a single flush is requested for the whole batch.
+     */
+    public void recordCombat(List<KillRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ClanMasterSettings settings = plugin.getSettings();
+        long now = System.currentTimeMillis();
+        Map<Clan, Double> xpGained = new IdentityHashMap<>();
+        Set<Clan> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (KillRecord record : batch) {
+            Clan killerClan = record.killer() == null ? null : getClanOrNull(record.killer());
+            Clan victimClan = getClanOrNull(record.victim());
+
+            if (killerClan != null) {
+                UUID killer = record.killer();
+                double xp = locks.withLock(killerClan, () -> applyKill(killerClan, killer, victimClan, settings, now));
+                xpGained.merge(killerClan, xp, Double::sum);
+                touched.add(killerClan);
+
+                if (economy != null && settings.killReward() > 0 && victimClan != null
+                        && relations.relation(killerClan, victimClan) == ClanRelation.ENEMY) {
+                    economy.depositPlayer(Bukkit.getOfflinePlayer(killer), settings.killReward());
                 }
             }
-            
-            // XP reward
-            double xpReward = plugin.getConfig().getDouble("progress.xp-per-kill", 10.0);
-            addXp(killerClan.getName(), xpReward);
+
+            if (victimClan != null) {
+                locks.run(victimClan, () -> applyDeath(victimClan, record.victim(), killerClan));
+                touched.add(victimClan);
+            }
+            leaderboards.recordKill(killerClan, victimClan);
         }
-        
+        xpGained.forEach(this::gainXp);
+        touched.forEach(this::markDirty);
+        saveAsync();
+    }
+
+    /**
+     * Counts a kill for the killer's clan and returns the xp it earns. Called under the clan's lock.
+     */
+    private double applyKill(Clan killerClan, UUID killer, Clan victimClan, ClanMasterSettings settings, long now) {
+        killerClan.getKills().merge(killer, 1, Integer::sum);
+        killerClan.setLastActivity(now);
+
+        // Daily kills tracking
+        resetDailyIfDue(killerClan, now);
+        killerClan.getDailyKills().merge(killer, 1, Integer::sum);
+
+        double xp = settings.xpPerKill();
+        // War kills
         if (victimClan != null) {
-            victimClan.getDeaths().merge(victim, 1, Integer::sum);
+            Clan.War war = killerClan.getActiveWars().get(victimClan.getName().toLowerCase(Locale.ROOT));
+            if (war != null && war.isActive()) {
+                war.setKillsClan1(war.getKillsClan1() + 1);
+                xp += settings.xpWarKillBonus();
+            }
         }
+        return xp;
     }
 
-    public void recordDeath(UUID victim) {
-        Clan clan = getClanOrNull(victim);
-        if (clan != null) {
-            clan.getDeaths().merge(victim, 1, Integer::sum);
+    /**
+     * Counts a death for the victim's clan and, during a war, the kill on its side of the war. Called under the
+     * clan's lock.
+     */
+    private void applyDeath(Clan victimClan, UUID victim, Clan killerClan) {
+        victimClan.getDeaths().merge(victim, 1, Integer::sum);
+        if (killerClan != null) {
+            // Each clan keeps its own War; the killer's counts it in killsClan1, the victim's mirrors it here
+            Clan.War war = victimClan.getActiveWars().get(killerClan.getName().toLowerCase(Locale.ROOT));
+            if (war != null && war.isActive()) {
+                war.setKillsClan2(war.getKillsClan2() + 1);
+            }
         }
     }
 
-    private void checkDailyReset(Clan clan) {
-        long now = System.currentTimeMillis();
+    private void resetDailyIfDue(Clan clan, long now) {
         long dayMillis = 24 * 60 * 60 * 1000L;
         if (now - clan.getLastDailyReset() > dayMillis) {
             clan.getDailyKills().clear();
@@ -605,13 +932,17 @@ public class ClanService {
     public boolean lockChest(UUID actor, String locKey) {
         Clan clan = getClanOrNull(actor);
         if (clan == null) return false;
-        return clan.getLockedChests().add(locKey);
+        if (!locks.withLock(clan, () -> clan.getLockedChests().add(locKey))) return false;
+        saveAsync(clan);
+        return true;
     }
 
     public boolean unlockChest(UUID actor, String locKey) {
         Clan clan = getClanOrNull(actor);
         if (clan == null) return false;
-        return clan.getLockedChests().remove(locKey);
+        if (!locks.withLock(clan, () -> clan.getLockedChests().remove(locKey))) return false;
+        saveAsync(clan);
+        return true;
     }
 
     public boolean canAccessChest(UUID actor, String locKey) {
@@ -633,14 +964,27 @@ public class ClanService {
         if (clan == null) {
             return;
         }
-        clan.setXp(clan.getXp() + amount);
-        double needed = plugin.getConfig().getDouble("progress.xp-per-level", 1000.0) * clan.getLevel();
-        if (clan.getXp() >= needed) {
+        gainXp(clan, amount);
+        saveAsync(clan);
+    }
+
+    /**
+     * Adds xp and levels the clan up if due, without marking it dirty.
+     */
+    private void gainXp(Clan clan, double amount) {
+        boolean levelledUp = locks.withLock(clan, () -> {
+            clan.setXp(clan.getXp() + amount);
+            double needed = plugin.getSettings().xpPerLevel() * clan.getLevel();
+            if (clan.getXp() < needed) {
+                return false;
+            }
             clan.setLevel(clan.getLevel() + 1);
             clan.setXp(0);
+            return true;
+        });
+        if (levelledUp) {
             bonusBroadcast(clan);
         }
-        saveAsync();
     }
 
     /**
@@ -648,7 +992,13 @@ public class ClanService {
      */
     private void startAutoSave() {
         long interval = plugin.getConfig().getLong("storage.autosave-seconds", 300L) * 20L;
-        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::save, interval, interval);
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            saveAsync();
+            leaderboards.save();
+            profiles.save();
+        }, interval, interval);
+        // Windowed boards only need re-ranking when a bucket rotates; refresh() is a no-op otherwise
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, leaderboards::refresh, 1200L, 1200L);
     }
 
     /**
@@ -663,40 +1013,229 @@ public class ClanService {
         long now = System.currentTimeMillis();
         long dayMillis = 24 * 60 * 60 * 1000L;
         for (Clan clan : clans.values()) {
-            if (now - clan.getLastDailyReset() > dayMillis) {
+            // Runs on a worker thread while kills are counted on the main thread
+            boolean reset = locks.withLock(clan, () -> {
+                if (now - clan.getLastDailyReset() <= dayMillis) {
+                    return false;
+                }
                 clan.getDailyKills().clear();
                 clan.setLastDailyReset(now);
+                return true;
+            });
+            if (reset) {
+                markDirty(clan);
             }
         }
         saveAsync();
     }
 
     /**
-     * Saves data asynchronously.
+     * Marks clan as changed so the next flush persists it.
+     */
+    public void markDirty(Clan clan) {
+        clan.bumpVersion();
+        globalVersion.incrementAndGet();
+        synchronized (pendingLock) {
+            dirtyClans.add(clan);
+        }
+        if (clans.get(clan.getName().toLowerCase(Locale.ROOT)) == clan) {
+            levelBoard.update(clan);
+            leaderboards.onChanged(clan);
+        }
+        fireChanged(clan);
+    }
+
+    /**
+     * Registers a listener told about every change to a clan.
+     */
+    public void addChangeListener(ClanChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    private void fireChanged(Clan clan) {
+        for (ClanChangeListener listener : changeListeners) {
+            try {
+                listener.onChanged(clan);
+            } catch (Exception ex) {
+                plugin.getLogger().warning("Failed to notify clan change listener: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Forgets pending changes of a removed clan and queues its stored entry for deletion.
+     */
+    private void markDeleted(Clan clan) {
+        synchronized (pendingLock) {
+            dirtyClans.remove(clan);
+            deletedClans.add(clan.getName());
+        }
+    }
+
+    private void markDeletedName(String name) {
+        synchronized (pendingLock) {
+            deletedClans.add(name);
+        }
+    }
+
+    /**
+     * Marks clan as changed and saves asynchronously.
+     */
+    public void saveAsync(Clan clan) {
+        markDirty(clan);
+        saveAsync();
+    }
+
+    /**
+     * Requests a debounced flush of pending changes on the writer thread.
      */
     public void saveAsync() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, this::save);
+        saveScheduler.request();
     }
 
     /**
-     * Flushes clans to storage.
+     * Flushes changed and deleted clans to storage. Flushes are serialized so batches reach the backend in order.
+     * Each clan is copied under its lock, so the backend writes a consistent state while the live clan keeps changing.
      */
-    public void save() {
-        storage.saveAll(new HashMap<>(clans));
+    public synchronized void save() {
+        Set<Clan> dirty;
+        Set<String> deleted;
+        synchronized (pendingLock) {
+            if (dirtyClans.isEmpty() && deletedClans.isEmpty()) {
+                return;
+            }
+            dirty = dirtyClans;
+            deleted = deletedClans;
+            dirtyClans = new HashSet<>();
+            deletedClans = new HashSet<>();
+        }
+        Map<String, Clan> changed = new HashMap<>();
+        for (Clan clan : dirty) {
+            Clan copy = locks.withLock(clan, clan::copy);
+            changed.put(copy.getName().toLowerCase(Locale.ROOT), copy);
+        }
+        if (!storage.saveChanges(changed, deleted)) {
+            requeue(dirty, deleted);
+        }
+    }
+
+    /**
+     * Puts a failed batch back so the next flush retries it. Clans deleted meanwhile are not resurrected.
+     */
+    private void requeue(Set<Clan> changed, Set<String> deleted) {
+        synchronized (pendingLock) {
+            deletedClans.addAll(deleted);
+            for (Clan clan : changed) {
+                if (clans.get(clan.getName().toLowerCase(Locale.ROOT)) == clan) {
+                    dirtyClans.add(clan);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread, or -1 when the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Writes every clan to a JSON document in the classic {@code clans.json} layout. The clans are copied on the
+     * calling thread, the file is written on a worker, and {@code done} runs back on the main thread.
+     *
+     * @param done receives true if the file was written
+     */
+    public void exportJson(Path file, Consumer<Boolean> done) {
+        List<Clan> copies = new ArrayList<>(clans.size());
+        for (Clan clan : clans.values()) {
+            copies.add(locks.withLock(clan, clan::copy));
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            boolean ok;
+            try {
+                ClanJsonFormat.write(file, copies);
+                ok = true;
+            } catch (Exception ex) {
+                plugin.getLogger().warning("Failed to export clans: " + ex.getMessage());
+                ok = false;
+            }
+            boolean result = ok;
+            Bukkit.getScheduler().runTask(plugin, () -> done.accept(result));
+        });
     }
 
     /**
      * Closes service cleanly.
      */
     public void shutdown() {
-        save();
+        saveScheduler.close();
+        storage.close();
+        leaderboards.save();
+        profiles.save();
+    }
+
+    /**
+     * Returns a counter that changes whenever any clan is modified or deleted.
+     */
+    public long getGlobalVersion() {
+        return globalVersion.get();
+    }
+
+    /**
+     * Returns how the clans of two players stand towards each other.
+     */
+    public ClanRelation getRelation(UUID first, UUID second) {
+        return relations.relation(playerIndex.get(first), playerIndex.get(second));
+    }
+
+    /**
+     * Returns whether one player may hurt another. Clan mates are protected unless their clan allows friendly fire,
+     * allies unless both clans allow it. Runs on every damage event, so it only does index lookups and never
+     * allocates.
+     *
+     * @param protectAllies whether alliances shield their members
+     */
+    public boolean canDamage(UUID attacker, UUID victim, boolean protectAllies) {
+        Clan attackerClan = playerIndex.get(attacker);
+        if (attackerClan == null) {
+            return true;
+        }
+        Clan victimClan = playerIndex.get(victim);
+        if (victimClan == null) {
+            return true;
+        }
+        switch (relations.relation(attackerClan, victimClan)) {
+            case SAME:
+                return attackerClan.isFriendlyFire();
+            case ALLY:
+                return !protectAllies || (attackerClan.isFriendlyFire() && victimClan.isFriendlyFire());
+            default:
+                return true;
+        }
+    }
+
+    public RelationIndex getRelations() {
+        return relations;
+    }
+
+    public ProfileCache getProfiles() {
+        return profiles;
+    }
+
+    public LeaderboardService getLeaderboards() {
+        return leaderboards;
+    }
+
+    public SaveScheduler getSaveScheduler() {
+        return saveScheduler;
     }
 
     private void bonusBroadcast(Clan clan) {
-        String msg = messages.get("clan.level-up")
-                .replace("{clan}", clan.getName())
-                .replace("{level}", String.valueOf(clan.getLevel()));
-        Bukkit.broadcastMessage(Text.color(msg));
+        messages.broadcast("clan.level-up", "{clan}", clan.getName(), "{level}", String.valueOf(clan.getLevel()));
         
         // Play sound for clan members
         clan.getMembers().keySet().forEach(uuid -> {
@@ -718,15 +1257,21 @@ public class ClanService {
      * Finds clan of player or null.
      */
     public Clan getClanOrNull(UUID playerId) {
-        return getClanByPlayer(playerId).orElse(null);
+        return playerIndex.get(playerId);
     }
 
     /**
      * Get clan activity status.
      */
     public String getActivityStatus(Clan clan) {
+        return getActivityStatus(clan.getLastActivity());
+    }
+
+    /**
+     * Get activity status for a last activity timestamp.
+     */
+    public String getActivityStatus(long lastActivity) {
         long now = System.currentTimeMillis();
-        long lastActivity = clan.getLastActivity();
         long diff = now - lastActivity;
         
         long hours = diff / (1000 * 60 * 60);
@@ -739,6 +1284,24 @@ public class ClanService {
         return "&8Inactive";
     }
 
+    /**
+     * Formats a clan's leaderboard value for display. Lifetime activity is a timestamp, so it shows as a status.
+     */
+    public String formatStat(Clan clan, ClanMetric metric, StatWindow window) {
+        if (metric == ClanMetric.ACTIVITY && window == StatWindow.ALL) {
+            return getActivityStatus(clan);
+        }
+        double value = leaderboards.value(clan, metric, window);
+        switch (metric) {
+            case KDR:
+                return String.format(Locale.ROOT, "%.2f", value);
+            case BANK:
+                return String.format(Locale.ROOT, "%.1f", value);
+            default:
+                return String.valueOf((long) value);
+        }
+    }
+
     /**
      * Check if clan has achievement.
      */
@@ -752,9 +1315,8 @@ public class ClanService {
     public boolean addAchievement(UUID actor, String achievement) {
         Clan clan = getClanOrNull(actor);
         if (clan == null || !isLeader(actor, clan)) return false;
-        if (clan.getAchievements().contains(achievement)) return false;
-        clan.getAchievements().add(achievement);
-        saveAsync();
+        if (!locks.withLock(clan, () -> clan.getAchievements().add(achievement))) return false;
+        saveAsync(clan);
         return true;
     }
 }
@@ -0,0 +1,68 @@
+package com.clanmaster.service;
+
+import com.clanmaster.ClanMasterPlugin;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects player deaths in a lock-free queue and applies them to clan stats in one batch per tick, so a burst of
+ * kills costs one leaderboard pass per clan and one storage flush instead of one of each per kill.
+ */
+public class CombatService {
+
+    /** Deaths applied per tick at most; the rest wait for the next tick. */
+    private static final int MAX_BATCH = 512;
+
+    private final ClanMasterPlugin plugin;
+    private final ClanService clanService;
+    private final Queue<KillRecord> queue = new ConcurrentLinkedQueue<>();
+
+    public CombatService(ClanMasterPlugin plugin, ClanService clanService) {
+        this.plugin = plugin;
+        this.clanService = clanService;
+    }
+
+    /**
+     * Starts draining the queue every tick.
+     */
+    public void start() {
+        Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    /**
+     * Queues a death; safe to call from any thread.
+     *
+     * @param killer the killing player, or null
+     */
+    public void submit(UUID killer, UUID victim) {
+        queue.add(new KillRecord(killer, victim));
+    }
+
+    /**
+     * Applies everything still queued; called on shutdown so no death is lost.
+     */
+    public void flush() {
+        while (!queue.isEmpty()) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        List<KillRecord> batch = new ArrayList<>(Math.min(queue.size(), MAX_BATCH));
+        for (KillRecord record = queue.poll(); record != null; record = queue.poll()) {
+            batch.add(record);
+            if (batch.size() >= MAX_BATCH) {
+                break;
+            }
+        }
+        clanService.recordCombat(batch);
+    }
+}
@@ -0,0 +1,12 @@
+package com.clanmaster.service;
+
+import java.util.UUID;
+
+/**
+ * One player death waiting to be applied to clan stats.
+ *
+ * @param killer the killing player, or null for a death without a player killer
+ * @param victim the player who died
+ */
+public record KillRecord(UUID killer, UUID victim) {
+}
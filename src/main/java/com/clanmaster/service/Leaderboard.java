@@ -0,0 +1,248 @@
+package com.clanmaster.service;
+
+import com.clanmaster.model.Clan;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Clans ordered by a primary and a secondary score, both descending, then by name. Backed by a size-augmented treap,
+ * so updates and rank lookups are O(log n) and reading k entries from any offset is O(log n + k).
+ * <p>
+ * The tree stores the scores a clan had when it was last updated; call {@link #update(Clan)} after changing them.
+ */
+public class Leaderboard {
+
+    private final ToDoubleFunction<Clan> primary;
+    private final ToDoubleFunction<Clan> secondary;
+    private final Map<Clan, Node> nodes = new IdentityHashMap<>();
+    private Node root;
+
+    /**
+     * @param primary   score compared first, higher ranks first
+     * @param secondary score breaking ties, higher ranks first
+     */
+    public Leaderboard(ToDoubleFunction<Clan> primary, ToDoubleFunction<Clan> secondary) {
+        this.primary = primary;
+        this.secondary = secondary;
+    }
+
+    /**
+     * Inserts the clan or moves it to the position matching its current scores.
+     */
+    public synchronized void update(Clan clan) {
+        Node current = nodes.get(clan);
+        double first = primary.applyAsDouble(clan);
+        double second = secondary.applyAsDouble(clan);
+        String name = clan.getName().toLowerCase(Locale.ROOT);
+        if (current != null) {
+            if (current.primary == first && current.secondary == second && current.name.equals(name)) {
+                return;
+            }
+            root = remove(root, current);
+        }
+        Node node = new Node(clan, first, second, name);
+        nodes.put(clan, node);
+        root = insert(root, node);
+    }
+
+    public synchronized void remove(Clan clan) {
+        Node current = nodes.remove(clan);
+        if (current != null) {
+            root = remove(root, current);
+        }
+    }
+
+    public synchronized void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the 1-based position of the clan, or 0 if it is not on the board.
+     */
+    public synchronized int rankOf(Clan clan) {
+        Node target = nodes.get(clan);
+        if (target == null) {
+            return 0;
+        }
+        int rank = 1;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(target, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left);
+                if (cmp == 0) {
+                    return rank;
+                }
+                rank++;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the clan at the given 1-based position, or null.
+     */
+    public synchronized Clan get(int rank) {
+        List<Clan> one = page(rank - 1, 1);
+        return one.isEmpty() ? null : one.get(0);
+    }
+
+    public synchronized List<Clan> top(int limit) {
+        return page(0, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} clans starting at the 0-based {@code offset}.
+     */
+    public synchronized List<Clan> page(int offset, int limit) {
+        List<Clan> out = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - offset)));
+        if (offset >= 0 && limit > 0) {
+            collect(root, offset, offset + limit, 0, out);
+        }
+        return out;
+    }
+
+    private static void collect(Node node, int from, int to, int base, List<Clan> out) {
+        while (node != null) {
+            int index = base + size(node.left);
+            if (from < index) {
+                collect(node.left, from, to, base, out);
+            }
+            if (index >= to) {
+                return;
+            }
+            if (index >= from) {
+                out.add(node.clan);
+            }
+            base = index + 1;
+            node = node.right;
+        }
+    }
+
+    private static int compare(Node a, Node b) {
+        int cmp = Double.compare(b.primary, a.primary);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Double.compare(b.secondary, a.secondary);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = a.name.compareTo(b.name);
+        if (cmp != 0) {
+            return cmp;
+        }
+        // Distinct clans never share a lower-case name, but keep the order total regardless
+        return Integer.compare(System.identityHashCode(a.clan), System.identityHashCode(b.clan));
+    }
+
+    private static Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (compare(fresh, node) < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node remove(Node node, Node target) {
+        if (node == null) {
+            return null;
+        }
+        if (node == target) {
+            return merge(node.left, node.right);
+        }
+        if (compare(target, node) < 0) {
+            node.left = remove(node.left, target);
+        } else {
+            node.right = remove(node.right, target);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final Clan clan;
+        private final double primary;
+        private final double secondary;
+        private final String name;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(Clan clan, double primary, double secondary, String name) {
+            this.clan = clan;
+            this.primary = primary;
+            this.secondary = secondary;
+            this.name = name;
+        }
+
+        private void update() {
+            size = 1 + Leaderboard.size(left) + Leaderboard.size(right);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.clanmaster.service;
+
+import com.clanmaster.model.Clan;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a {@link Leaderboard} for every metric and window. Events feed per-clan {@link BucketCounter}s, so a window
+ * total changes in O(1) and only the boards it affects are touched. Rolling boards are re-ranked once per bucket
+ * rotation, since totals also drop as old buckets expire.
+ */
+public class LeaderboardService {
+
+    private static final int KILLS = 0;
+    private static final int DEATHS = 1;
+    private static final int BANK = 2;
+    private static final int WAR_POINTS = 3;
+    private static final int WINS = 4;
+    private static final int ACTIVITY = 5;
+    private static final int COUNTERS = 6;
+    private static final StatWindow[] ROLLING = {StatWindow.DAILY, StatWindow.WEEKLY, StatWindow.SEASON};
+
+    private final File file;
+    private final Logger logger;
+    private final Gson gson = new Gson();
+    private final Type savedType = new TypeToken<Map<String, BucketCounter[][]>>() { }.getType();
+    private final int[] bucketCounts = new int[ROLLING.length];
+    private final Map<Clan, Stats> stats = new IdentityHashMap<>();
+    private final Map<ClanMetric, Map<StatWindow, Leaderboard>> boards = new EnumMap<>(ClanMetric.class);
+    private final long[] lastBuckets = new long[ROLLING.length];
+
+    /**
+     * @param file       where window counters are kept between restarts
+     * @param seasonDays length of the rolling season window
+     */
+    public LeaderboardService(File file, int seasonDays, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+        for (int i = 0; i < ROLLING.length; i++) {
+            bucketCounts[i] = ROLLING[i] == StatWindow.SEASON ? Math.max(1, seasonDays) : ROLLING[i].getDefaultBuckets();
+        }
+        for (ClanMetric metric : ClanMetric.values()) {
+            Map<StatWindow, Leaderboard> byWindow = new EnumMap<>(StatWindow.class);
+            for (StatWindow window : StatWindow.values()) {
+                byWindow.put(window, new Leaderboard(clan -> score(clan, metric, window),
+                        clan -> metric == ClanMetric.KDR ? score(clan, ClanMetric.KILLS, window) : 0));
+            }
+            boards.put(metric, byWindow);
+        }
+    }
+
+    /**
+     * Restores saved window counters and ranks every clan.
+     */
+    public synchronized void load(Collection<Clan> clans) {
+        Map<String, BucketCounter[][]> saved = new HashMap<>();
+        if (file.exists()) {
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                Map<String, BucketCounter[][]> data = gson.fromJson(reader, savedType);
+                if (data != null) {
+                    saved = data;
+                }
+            } catch (Exception ex) {
+                logger.warning("Failed to load leaderboard stats: " + ex.getMessage());
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (Clan clan : clans) {
+            Stats entry = new Stats(clan);
+            BucketCounter[][] counters = saved.get(clan.getName().toLowerCase(Locale.ROOT));
+            if (counters != null && counters.length == COUNTERS) {
+                for (int c = 0; c < COUNTERS; c++) {
+                    for (int w = 0; w < ROLLING.length && w < counters[c].length; w++) {
+                        BucketCounter counter = counters[c][w];
+                        // Counters saved with a different bucket layout, e.g. after changing season-days, start over
+                        if (counter != null && counter.matches(ROLLING[w].getBucketMillis(), bucketCounts[w])) {
+                            entry.windows[c][w] = counter;
+                        }
+                    }
+                }
+            }
+            stats.put(clan, entry);
+        }
+        for (int w = 0; w < ROLLING.length; w++) {
+            lastBuckets[w] = now / ROLLING[w].getBucketMillis();
+        }
+        stats.keySet().forEach(this::rankAll);
+    }
+
+    /**
+     * Writes window counters keyed by clan name.
+     */
+    public void save() {
+        Map<String, BucketCounter[][]> data = new HashMap<>();
+        synchronized (this) {
+            stats.forEach((clan, entry) -> data.put(clan.getName().toLowerCase(Locale.ROOT), entry.windows));
+            try {
+                Path target = file.toPath();
+                Path temp = target.resolveSibling(file.getName() + ".tmp");
+                Files.createDirectories(target.toAbsolutePath().getParent());
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    gson.toJson(data, savedType, writer);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (Exception ex) {
+                logger.warning("Failed to save leaderboard stats: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Re-ranks a clan on the lifetime boards after its stored values changed, adding it if new.
+     */
+    public synchronized void onChanged(Clan clan) {
+        if (!stats.containsKey(clan)) {
+            stats.put(clan, new Stats(clan));
+            rankAll(clan);
+            return;
+        }
+        for (ClanMetric metric : ClanMetric.values()) {
+            boards.get(metric).get(StatWindow.ALL).update(clan);
+        }
+    }
+
+    public synchronized void remove(Clan clan) {
+        stats.remove(clan);
+        boards.values().forEach(byWindow -> byWindow.values().forEach(board -> board.remove(clan)));
+    }
+
+    /**
+     * Counts a kill for the killer's clan and a death for the victim's clan; either may be null.
+     */
+    public synchronized void recordKill(Clan killerClan, Clan victimClan) {
+        if (killerClan != null) {
+            Stats entry = stats.get(killerClan);
+            if (entry != null) {
+                entry.allKills++;
+                add(killerClan, KILLS, 1, ClanMetric.KILLS, ClanMetric.KDR);
+                add(killerClan, ACTIVITY, 1, ClanMetric.ACTIVITY);
+            }
+        }
+        recordDeath(victimClan);
+    }
+
+    public synchronized void recordDeath(Clan clan) {
+        if (clan == null) {
+            return;
+        }
+        Stats entry = stats.get(clan);
+        if (entry != null) {
+            entry.allDeaths++;
+            add(clan, DEATHS, 1, ClanMetric.KDR);
+        }
+    }
+
+    /**
+     * Records a bank movement; withdrawals are negative.
+     */
+    public synchronized void recordBank(Clan clan, double amount) {
+        add(clan, BANK, amount, ClanMetric.BANK);
+        add(clan, ACTIVITY, 1, ClanMetric.ACTIVITY);
+    }
+
+    public synchronized void recordWarWin(Clan clan, int warPoints) {
+        add(clan, WINS, 1, ClanMetric.WINS);
+        add(clan, WAR_POINTS, warPoints, ClanMetric.WAR_POINTS);
+    }
+
+    public synchronized void recordActivity(Clan clan) {
+        add(clan, ACTIVITY, 1, ClanMetric.ACTIVITY);
+    }
+
+    private void add(Clan clan, int counter, double amount, ClanMetric... affected) {
+        Stats entry = stats.get(clan);
+        if (entry == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (BucketCounter window : entry.windows[counter]) {
+            window.add(now, amount);
+        }
+        for (ClanMetric metric : affected) {
+            boards.get(metric).values().forEach(board -> board.update(clan));
+        }
+    }
+
+    /**
+     * Re-ranks the rolling boards if any window moved to a new bucket since the last call. Cheap when nothing rotated.
+     */
+    public synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        for (int w = 0; w < ROLLING.length; w++) {
+            long bucket = now / ROLLING[w].getBucketMillis();
+            if (bucket == lastBuckets[w]) {
+                continue;
+            }
+            lastBuckets[w] = bucket;
+            for (ClanMetric metric : ClanMetric.values()) {
+                Leaderboard board = boards.get(metric).get(ROLLING[w]);
+                stats.keySet().forEach(board::update);
+            }
+        }
+    }
+
+    public List<Clan> top(ClanMetric metric, StatWindow window, int offset, int limit) {
+        return boards.get(metric).get(window).page(offset, limit);
+    }
+
+    public int rankOf(Clan clan, ClanMetric metric, StatWindow window) {
+        return boards.get(metric).get(window).rankOf(clan);
+    }
+
+    public int size() {
+        return boards.get(ClanMetric.KILLS).get(StatWindow.ALL).size();
+    }
+
+    /**
+     * Returns the clan's current value for a metric and window.
+     */
+    public synchronized double value(Clan clan, ClanMetric metric, StatWindow window) {
+        return stats.containsKey(clan) ? score(clan, metric, window) : 0;
+    }
+
+    private void rankAll(Clan clan) {
+        boards.values().forEach(byWindow -> byWindow.values().forEach(board -> board.update(clan)));
+    }
+
+    private double score(Clan clan, ClanMetric metric, StatWindow window) {
+        Stats entry = stats.get(clan);
+        if (entry == null) {
+            return 0;
+        }
+        if (window == StatWindow.ALL) {
+            switch (metric) {
+                case KILLS:
+                    return entry.allKills;
+                case KDR:
+                    return entry.allKills / Math.max(1, entry.allDeaths);
+                case BANK:
+                    return clan.getPoints();
+                case WAR_POINTS:
+                    return clan.getWarPoints();
+                case WINS:
+                    return clan.getWins();
+                default:
+                    return clan.getLastActivity();
+            }
+        }
+        long now = System.currentTimeMillis();
+        int w = window.ordinal();
+        switch (metric) {
+            case KILLS:
+                return entry.windows[KILLS][w].total(now);
+            case KDR:
+                return entry.windows[KILLS][w].total(now) / Math.max(1, entry.windows[DEATHS][w].total(now));
+            case BANK:
+                return entry.windows[BANK][w].total(now);
+            case WAR_POINTS:
+                return entry.windows[WAR_POINTS][w].total(now);
+            case WINS:
+                return entry.windows[WINS][w].total(now);
+            default:
+                return entry.windows[ACTIVITY][w].total(now);
+        }
+    }
+
+    /**
+     * Window counters of one clan, indexed by counter then rolling window, plus lifetime kill and death totals.
+     */
+    private final class Stats {
+        private final BucketCounter[][] windows = new BucketCounter[COUNTERS][ROLLING.length];
+        private double allKills;
+        private double allDeaths;
+
+        private Stats(Clan clan) {
+            for (int c = 0; c < COUNTERS; c++) {
+                for (int w = 0; w < ROLLING.length; w++) {
+                    windows[c][w] = new BucketCounter(ROLLING[w].getBucketMillis(), bucketCounts[w]);
+                }
+            }
+            // Lifetime totals are summed once here and then kept up to date by events
+            clan.getKills().values().forEach(kills -> allKills += kills);
+            clan.getDeaths().values().forEach(deaths -> allDeaths += deaths);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.clanmaster.service;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.profile.PlayerProfile;
+import org.bukkit.profile.PlayerTextures;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers player names and skins so menus and placeholders never look them up on the calling thread. Entries come
+ * from players joining and from a background resolver for players the cache has not seen; reads only consult the map.
+ * The cache is kept between restarts in a small binary file:
+ *
+ * <pre>
+ * int magic, short version, int entries, { long most, long least, utf name, utf skin url or "" }
+ * </pre>
+ */
+public class ProfileCache {
+
+    private static final int MAGIC = 0x434D5046;
+    private static final short VERSION = 1;
+
+    private final Plugin plugin;
+    private final File file;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    /** Players already handed to the resolver this session, so unknown ids are not looked up again and again. */
+    private final Set<UUID> requested = ConcurrentHashMap.newKeySet();
+    /** Bumped whenever a name or skin is learned, for caches that render them. */
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean dirty;
+
+    public ProfileCache(Plugin plugin, File file) {
+        this.plugin = plugin;
+        this.file = file;
+    }
+
+    /**
+     * Reads the saved names and skins.
+     */
+    public void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                plugin.getLogger().warning("Ignoring " + file.getName() + ": unknown format.");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                String name = in.readUTF();
+                String skin = in.readUTF();
+                entries.put(id, new Entry(name, skin.isEmpty() ? null : skin, null));
+            }
+        } catch (Exception ex) {
+            plugin.getLogger().warning("Failed to load player profiles: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes the cache if anything was learned since the last save.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            Path target = file.toPath();
+            Path temp = target.resolveSibling(file.getName() + ".tmp");
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                // Copy first: entries may be added while writing, and the count must match what is written
+                Map<UUID, Entry> copy = Map.copyOf(entries);
+                out.writeInt(copy.size());
+                for (Map.Entry<UUID, Entry> entry : copy.entrySet()) {
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    out.writeUTF(entry.getValue().name());
+                    out.writeUTF(entry.getValue().skin() == null ? "" : entry.getValue().skin());
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception ex) {
+            dirty = true;
+            plugin.getLogger().warning("Failed to save player profiles: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Stores the name and skin of a player who just joined.
+     */
+    public void remember(Player player) {
+        PlayerProfile profile = player.getPlayerProfile();
+        store(player.getUniqueId(), player.getName(), skinOf(profile), profile);
+    }
+
+    /**
+     * Returns the cached name, or {@code fallback} while it is still being resolved.
+     */
+    public String name(UUID id, String fallback) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            resolve(id);
+            return fallback;
+        }
+        return entry.name();
+    }
+
+    /**
+     * Returns a profile carrying the player's skin for rendering heads, or null while it is still being resolved.
+     */
+    public PlayerProfile profile(UUID id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            resolve(id);
+            return null;
+        }
+        if (entry.profile() != null) {
+            return entry.profile();
+        }
+        // Loaded from disk: rebuild the profile from the saved skin without asking Mojang
+        PlayerProfile profile = Bukkit.createPlayerProfile(id, entry.name());
+        if (entry.skin() != null) {
+            try {
+                profile.getTextures().setSkin(new URL(entry.skin()));
+            } catch (Exception ex) {
+                plugin.getLogger().warning("Ignoring invalid skin of " + entry.name() + ": " + ex.getMessage());
+            }
+        }
+        entries.replace(id, entry, new Entry(entry.name(), entry.skin(), profile));
+        return profile;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    private void resolve(UUID id) {
+        if (!requested.add(id)) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                // The server's user cache knows most names without a network request
+                String name = Bukkit.getOfflinePlayer(id).getName();
+                if (name != null) {
+                    store(id, name, null, null);
+                }
+                Bukkit.createPlayerProfile(id, name).update().whenComplete((profile, error) -> {
+                    if (error == null && profile != null && profile.getName() != null) {
+                        store(id, profile.getName(), skinOf(profile), profile);
+                    }
+                });
+            } catch (Exception ex) {
+                plugin.getLogger().warning("Failed to resolve profile " + id + ": " + ex.getMessage());
+            }
+        });
+    }
+
+    private void store(UUID id, String name, String skin, PlayerProfile profile) {
+        Entry previous = entries.get(id);
+        // Keep a known skin when only the name was looked up
+        String keptSkin = skin != null || previous == null ? skin : previous.skin();
+        PlayerProfile keptProfile = profile != null || previous == null ? profile : previous.profile();
+        entries.put(id, new Entry(name, keptSkin, keptProfile));
+        if (previous == null || !previous.name().equals(name) || !Objects.equals(previous.skin(), keptSkin)) {
+            dirty = true;
+            version.incrementAndGet();
+        }
+    }
+
+    private static String skinOf(PlayerProfile profile) {
+        if (profile == null) {
+            return null;
+        }
+        PlayerTextures textures = profile.getTextures();
+        URL skin = textures == null ? null : textures.getSkin();
+        return skin == null ? null : skin.toString();
+    }
+
+    /**
+     * @param skin    skin texture url, or null if unknown
+     * @param profile profile to render heads with, or null until first needed
+     */
+    private record Entry(String name, String skin, PlayerProfile profile) {
+    }
+}
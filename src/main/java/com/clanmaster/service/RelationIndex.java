@@ -0,0 +1,81 @@
+package com.clanmaster.service;
+
+import com.clanmaster.model.Clan;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "how does clan A stand towards clan B" in O(1) without allocating, for callers that ask for every pair of
+ * online players. Each clan's outgoing relations are flattened into a name-keyed map and rebuilt only after the
+ * clan's relation version changes, which kills, xp and joins leave alone.
+ * <p>
+ * Relations are symmetric: an enemy entry or active war on either side makes the pair enemies, otherwise an ally
+ * entry on either side makes them allies.
+ */
+public class RelationIndex {
+
+    private final Map<Clan, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the relation between two clans; a null clan is neutral to everyone.
+     */
+    public ClanRelation relation(Clan a, Clan b) {
+        if (a == null || b == null) {
+            return ClanRelation.NEUTRAL;
+        }
+        if (a == b) {
+            return ClanRelation.SAME;
+        }
+        Entry first = entry(a);
+        Entry second = entry(b);
+        ClanRelation forward = first.outgoing.get(second.key);
+        ClanRelation backward = second.outgoing.get(first.key);
+        if (forward == ClanRelation.ENEMY || backward == ClanRelation.ENEMY) {
+            return ClanRelation.ENEMY;
+        }
+        if (forward == ClanRelation.ALLY || backward == ClanRelation.ALLY) {
+            return ClanRelation.ALLY;
+        }
+        return ClanRelation.NEUTRAL;
+    }
+
+    public void remove(Clan clan) {
+        entries.remove(clan);
+    }
+
+    private Entry entry(Clan clan) {
+        Entry entry = entries.get(clan);
+        long version = clan.getRelationVersion();
+        if (entry == null || entry.version != version) {
+            entry = new Entry(clan, version);
+            entries.put(clan, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Relations one clan declared, keyed by the other clan's lower-case name.
+     */
+    private static final class Entry {
+        private final long version;
+        private final String key;
+        private final Map<String, ClanRelation> outgoing = new HashMap<>();
+
+        private Entry(Clan clan, long version) {
+            this.version = version;
+            this.key = clan.getName().toLowerCase(Locale.ROOT);
+            for (String ally : clan.getAllies()) {
+                outgoing.put(ally.toLowerCase(Locale.ROOT), ClanRelation.ALLY);
+            }
+            for (String enemy : clan.getEnemies()) {
+                outgoing.put(enemy.toLowerCase(Locale.ROOT), ClanRelation.ENEMY);
+            }
+            for (String war : clan.getActiveWars().keySet()) {
+                outgoing.put(war.toLowerCase(Locale.ROOT), ClanRelation.ENEMY);
+            }
+        }
+    }
+}
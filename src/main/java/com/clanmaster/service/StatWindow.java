@@ -0,0 +1,53 @@
+package com.clanmaster.service;
+
+import java.util.Locale;
+
+/**
+ * Time ranges leaderboards can cover. The rolling windows are split into ring-buffer buckets; {@link #ALL} reads the
+ * lifetime values kept on the clan.
+ */
+public enum StatWindow {
+    DAILY("daily", 60 * 60 * 1000L, 24),
+    WEEKLY("weekly", 6 * 60 * 60 * 1000L, 28),
+    SEASON("season", 24 * 60 * 60 * 1000L, 30),
+    ALL("all", 0L, 0);
+
+    private final String id;
+    private final long bucketMillis;
+    private final int defaultBuckets;
+
+    StatWindow(String id, long bucketMillis, int defaultBuckets) {
+        this.id = id;
+        this.bucketMillis = bucketMillis;
+        this.defaultBuckets = defaultBuckets;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getDefaultBuckets() {
+        return defaultBuckets;
+    }
+
+    public boolean isRolling() {
+        return this != ALL;
+    }
+
+    /**
+     * Resolves a window from its id, or null if unknown.
+     */
+    public static StatWindow parse(String id) {
+        String key = id.toLowerCase(Locale.ROOT);
+        for (StatWindow window : values()) {
+            if (window.id.equals(key)) {
+                return window;
+            }
+        }
+        return null;
+    }
+}
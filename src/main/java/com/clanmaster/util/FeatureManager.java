@@ -1,11 +1,12 @@
 package com.clanmaster.util;
 
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.Plugin;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages feature toggles and custom menu text from configuration.
@@ -14,10 +15,14 @@ public class FeatureManager {
 
     private final Map<String, Boolean> enabledFeatures = new HashMap<>();
     private final Map<String, String> menuText = new HashMap<>();
-    private final FileConfiguration config;
-
-    public FeatureManager(Plugin plugin) {
-        this.config = plugin.getConfig();
+    /** Colored menu text per language, filled on first use. */
+    private final Map<String, Map<String, String>> localizedText = new ConcurrentHashMap<>();
+    private final Plugin plugin;
+    private final MessageResolver messages;
+
+    public FeatureManager(Plugin plugin, MessageResolver messages) {
+        this.plugin = plugin;
+        this.messages = messages;
         loadFeatures();
         loadMenuText();
     }
@@ -26,7 +31,7 @@ public class FeatureManager {
      * Loads enabled features from config.
      */
     private void loadFeatures() {
-        ConfigurationSection section = config.getConfigurationSection("enabled-features");
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("enabled-features");
         if (section != null) {
             for (String key : section.getKeys(false)) {
                 enabledFeatures.put(key, section.getBoolean(key, true));
@@ -38,7 +43,7 @@ public class FeatureManager {
      * Loads custom menu text from config.
      */
     private void loadMenuText() {
-        ConfigurationSection section = config.getConfigurationSection("menu-text");
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("menu-text");
         if (section != null) {
             for (String key : section.getKeys(false)) {
                 menuText.put(key, section.getString(key, ""));
@@ -68,12 +73,26 @@ public class FeatureManager {
         return Text.color(value);
     }
 
+    /**
+     * Gets colored menu text in the viewer's language. A {@code menu-text.<key>} entry in the language file wins over
+     * the config value, which wins over the default.
+     */
+    public String getMenuTextColored(CommandSender viewer, String key, String defaultValue) {
+        String language = messages.languageOf(viewer);
+        return localizedText.computeIfAbsent(language, lang -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> {
+                    String translated = messages.find(language, "menu-text." + k);
+                    return Text.color(translated != null ? translated : getMenuText(k, defaultValue));
+                });
+    }
+
     /**
      * Reloads configuration.
      */
     public void reload() {
         enabledFeatures.clear();
         menuText.clear();
+        localizedText.clear();
         loadFeatures();
         loadMenuText();
     }
@@ -4,6 +4,8 @@ import org.bukkit.Material;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.profile.PlayerProfile;
 
 import java.util.List;
 
@@ -40,6 +42,17 @@ public class ItemBuilder {
         return this;
     }
 
+    /**
+     * Sets the skin of a player head; ignored for other items or a null profile.
+     */
+    public ItemBuilder owner(PlayerProfile profile) {
+        if (profile != null && stack.getItemMeta() instanceof SkullMeta meta) {
+            meta.setOwnerProfile(profile);
+            stack.setItemMeta(meta);
+        }
+        return this;
+    }
+
     public ItemStack build() {
         return stack;
     }
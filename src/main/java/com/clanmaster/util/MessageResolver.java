@@ -1,20 +1,37 @@
 package com.clanmaster.util;
 
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles multilingual message lookup.
+ * <p>
+ * Each language is merged with the English files into one immutable table of compiled templates, built the first
+ * time the language is needed and kept until reload, so a lookup never touches the disk and a missing translation
+ * falls back to English. Players get the language matching their client locale when a file for it exists.
  */
 public class MessageResolver {
 
     private final Plugin plugin;
-    private FileConfiguration messages;
-    private String activeLanguage;
+    private final Map<String, Map<String, MessageTemplate>> tables = new ConcurrentHashMap<>();
+    /** Client locale, e.g. {@code de_de}, to the language used for it. */
+    private final Map<String, String> localeLanguages = new ConcurrentHashMap<>();
+    private volatile String activeLanguage;
+    private volatile boolean perPlayer;
 
     /**
      * Loads messages file with configured language fallback to English.
@@ -28,35 +45,125 @@ public class MessageResolver {
      * Reloads messages from disk.
      */
     public void reload() {
-        this.activeLanguage = plugin.getConfig().getString("language", "en").toLowerCase(Locale.ROOT);
+        String language = plugin.getConfig().getString("language", "en").toLowerCase(Locale.ROOT);
         File langDir = new File(plugin.getDataFolder(), "lang");
         if (!langDir.exists()) langDir.mkdirs();
-        File file = new File(langDir, activeLanguage + ".yml");
+        File file = new File(langDir, language + ".yml");
         if (!file.exists()) {
-            plugin.saveResource("lang/" + activeLanguage + ".yml", false);
+            plugin.saveResource("lang/" + language + ".yml", false);
+        }
+        this.perPlayer = plugin.getConfig().getBoolean("per-player-language", true);
+        tables.clear();
+        localeLanguages.clear();
+        this.activeLanguage = language;
+        // Build the server language eagerly so the first message does not pay for it
+        table(language);
+    }
+
+    private Map<String, MessageTemplate> table(String language) {
+        return tables.computeIfAbsent(language, this::buildTable);
+    }
+
+    private Map<String, MessageTemplate> buildTable(String language) {
+        File langDir = new File(plugin.getDataFolder(), "lang");
+        // Later layers win: bundled English, edited English, bundled and edited language
+        Map<String, String> merged = new HashMap<>();
+        mergeResource(merged, "lang/en.yml");
+        mergeFile(merged, new File(langDir, "en.yml"));
+        if (!language.equals("en")) {
+            mergeResource(merged, "lang/" + language + ".yml");
+            mergeFile(merged, new File(langDir, language + ".yml"));
+        }
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+        merged.forEach((key, value) -> compiled.put(key, new MessageTemplate(value)));
+        return Map.copyOf(compiled);
+    }
+
+    private void mergeResource(Map<String, String> target, String path) {
+        InputStream in = plugin.getResource(path);
+        if (in == null) {
+            return;
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            merge(target, YamlConfiguration.loadConfiguration(reader));
+        } catch (Exception ex) {
+            plugin.getLogger().warning("Failed to read bundled " + path + ": " + ex.getMessage());
+        }
+    }
+
+    private void mergeFile(Map<String, String> target, File file) {
+        if (file.exists()) {
+            merge(target, YamlConfiguration.loadConfiguration(file));
+        }
+    }
+
+    private static void merge(Map<String, String> target, FileConfiguration config) {
+        for (String key : config.getKeys(true)) {
+            if (!config.isConfigurationSection(key)) {
+                String value = config.getString(key);
+                if (value != null) {
+                    target.put(key, value);
+                }
+            }
         }
-        this.messages = YamlConfiguration.loadConfiguration(file);
     }
 
     /**
-     * Fetches message by key respecting language namespace.
+     * Returns the language messages for this sender are shown in.
      */
-    public String get(String key) {
-        String value = messages.getString(key);
-        if (value != null) {
-            return value;
+    public String languageOf(CommandSender sender) {
+        if (!perPlayer || !(sender instanceof Player)) {
+            return activeLanguage;
         }
-        // fallback to en
-        File enFile = new File(plugin.getDataFolder(), "lang/en.yml");
-        if (enFile.exists()) {
-            FileConfiguration enCfg = YamlConfiguration.loadConfiguration(enFile);
-            String fallback = enCfg.getString(key);
-            if (fallback != null) {
-                return fallback;
-            }
+        String locale = ((Player) sender).getLocale();
+        if (locale == null || locale.isEmpty()) {
+            return activeLanguage;
+        }
+        return localeLanguages.computeIfAbsent(locale, this::languageForLocale);
+    }
+
+    private String languageForLocale(String locale) {
+        int separator = locale.indexOf('_');
+        String language = (separator < 0 ? locale : locale.substring(0, separator)).toLowerCase(Locale.ROOT);
+        if (language.equals(activeLanguage) || language.equals("en")) {
+            return language;
         }
+        if (new File(plugin.getDataFolder(), "lang/" + language + ".yml").exists()) {
+            return language;
+        }
+        try (InputStream in = plugin.getResource("lang/" + language + ".yml")) {
+            return in != null ? language : activeLanguage;
+        } catch (Exception ex) {
+            return activeLanguage;
+        }
+    }
+
+    /**
+     * Fetches message by key respecting language namespace.
+     */
+    public String get(String key) {
+        return raw(table(activeLanguage), key);
+    }
+
+    /**
+     * Fetches message by key in the recipient's language.
+     */
+    public String get(CommandSender sender, String key) {
+        return raw(table(languageOf(sender)), key);
+    }
+
+    /**
+     * Returns the raw message for a key in the given language, or null if no language file defines it.
+     */
+    public String find(String language, String key) {
+        MessageTemplate template = table(language).get(key);
+        return template == null ? null : template.raw();
+    }
+
+    private static String raw(Map<String, MessageTemplate> table, String key) {
+        MessageTemplate template = table.get(key);
         // Return key itself if nothing found (for debugging)
-        return key;
+        return template == null ? key : template.raw();
     }
 
     /**
@@ -66,6 +173,47 @@ public class MessageResolver {
         return get(key).replace(placeholder, replacement);
     }
 
+    /**
+     * Renders a colored message in the server language.
+     *
+     * @param replacements alternating placeholder and value, e.g. {@code "{clan}", name}
+     */
+    public String format(String key, String... replacements) {
+        return render(table(activeLanguage), key, replacements);
+    }
+
+    /**
+     * Renders a colored message in the recipient's language.
+     */
+    public String format(CommandSender sender, String key, String... replacements) {
+        return render(table(languageOf(sender)), key, replacements);
+    }
+
+    private static String render(Map<String, MessageTemplate> table, String key, String... replacements) {
+        MessageTemplate template = table.get(key);
+        return template == null ? key : template.render(replacements);
+    }
+
+    /**
+     * Sends a message to each recipient in their language, rendering it once per language.
+     */
+    public void send(Iterable<? extends CommandSender> recipients, String key, String... replacements) {
+        Map<String, String> rendered = new HashMap<>(4);
+        for (CommandSender recipient : recipients) {
+            String message = rendered.computeIfAbsent(languageOf(recipient),
+                    language -> render(table(language), key, replacements));
+            recipient.sendMessage(message);
+        }
+    }
+
+    /**
+     * Sends a message to every online player in their language and to the console.
+     */
+    public void broadcast(String key, String... replacements) {
+        send(Bukkit.getOnlinePlayers(), key, replacements);
+        Bukkit.getConsoleSender().sendMessage(format(key, replacements));
+    }
+
     /**
      * Reloads the active language file.
      */
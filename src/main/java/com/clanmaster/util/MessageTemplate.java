@@ -0,0 +1,85 @@
+package com.clanmaster.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pre-colored message split into literal text and {@code {name}} slots, rendered in one pass.
+ */
+public final class MessageTemplate {
+
+    private final String raw;
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    /**
+     * @param raw message as written in the language file, with '&' color codes
+     */
+    public MessageTemplate(String raw) {
+        this.raw = raw;
+        String colored = Text.color(raw);
+        List<String> literalList = new ArrayList<>();
+        List<String> slotList = new ArrayList<>();
+        int start = 0;
+        int open = colored.indexOf('{');
+        while (open >= 0) {
+            int close = colored.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            literalList.add(colored.substring(start, open));
+            slotList.add(colored.substring(open, close + 1));
+            start = close + 1;
+            open = colored.indexOf('{', start);
+        }
+        literalList.add(colored.substring(start));
+        this.literals = literalList.toArray(new String[0]);
+        this.slots = slotList.toArray(new String[0]);
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Returns the message as written, before coloring.
+     */
+    public String raw() {
+        return raw;
+    }
+
+    /**
+     * Renders the colored message.
+     *
+     * @param replacements alternating placeholder and value, e.g. {@code "{clan}", name}; slots without a value are
+     *                     left as written, and values containing '&' are colored too
+     */
+    public String render(String... replacements) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder out = new StringBuilder(literalLength + 16 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = valueOf(slots[i], replacements);
+            if (value == null) {
+                out.append(slots[i]);
+            } else {
+                out.append(value.indexOf('&') >= 0 ? Text.color(value) : value);
+            }
+        }
+        out.append(literals[slots.length]);
+        return out.toString();
+    }
+
+    private static String valueOf(String slot, String[] replacements) {
+        for (int i = 0; i + 1 < replacements.length; i += 2) {
+            if (slot.equals(replacements[i])) {
+                return replacements[i + 1];
+            }
+        }
+        return null;
+    }
+}